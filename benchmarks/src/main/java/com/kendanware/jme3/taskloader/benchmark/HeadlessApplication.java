@@ -0,0 +1,38 @@
+package com.kendanware.jme3.taskloader.benchmark;
+
+import com.jme3.app.Application;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A stand in for a real JME application which is never started, so no window or render context is created. Errors are
+ * logged and recorded instead of stopping the application, throwing them would only end the loader thread which handles
+ * them. The benchmark calls {@link #checkErrors()} once loading has completed so a failing task shows up in the results.
+ */
+public class HeadlessApplication extends Application {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HeadlessApplication.class);
+
+    private final AtomicReference<IllegalStateException> error = new AtomicReference<>();
+
+    @Override
+    public void handleError(final String errorMessage, final Throwable throwable) {
+        LOGGER.error(errorMessage, throwable);
+        error.compareAndSet(null, new IllegalStateException(errorMessage, throwable));
+    }
+
+    /**
+     * Throws the first error handled since the last call, on the calling thread so JMH reports the benchmark as failed.
+     *
+     * @throws IllegalStateException if an error has been handled.
+     */
+    public void checkErrors() {
+        final IllegalStateException error = this.error.getAndSet(null);
+
+        if (error != null) {
+            throw error;
+        }
+    }
+}
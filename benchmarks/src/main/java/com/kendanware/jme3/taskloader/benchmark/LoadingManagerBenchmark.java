@@ -0,0 +1,216 @@
+package com.kendanware.jme3.taskloader.benchmark;
+
+import com.jme3.app.Application;
+import com.kendanware.jme3.taskloader.LoadingManager;
+import com.kendanware.jme3.taskloader.LoadingTask;
+import com.kendanware.jme3.taskloader.annotation.DependsOn;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how long it takes a {@link LoadingManager} to register, schedule and load a batch of synthetic tasks, from
+ * the first registerForLoading() call until the progress callback reports completion. The tasks do little or no work so
+ * the results mostly show the scheduling overhead of the loading manager itself.
+ * <p>
+ * Run with {@code java -jar target/benchmarks.jar} after building the module, see the README for details.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoadingManagerBenchmark {
+
+    private static final long CPU_TOKENS = 10_000;
+
+    @Param({"1", "2", "4", "8"})
+    public int threads;
+
+    @Param({"5000"})
+    public int tasks;
+
+    private HeadlessApplication application;
+    private ExecutorService executor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        application = new HeadlessApplication();
+        executor = Executors.newFixedThreadPool(threads);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Thousands of tasks which do nothing, shows the cost per task of the scheduling path.
+     */
+    @Benchmark
+    public void noOpTasks() throws InterruptedException {
+        final CountDownLatch loadingCompleted = new CountDownLatch(1);
+        final LoadingManager<Application> loadingManager = createLoadingManager(loadingCompleted);
+
+        for (int i = 0; i < tasks; i++) {
+            loadingManager.registerForLoading(new NoOpTask());
+        }
+
+        load(loadingManager, loadingCompleted);
+    }
+
+    /**
+     * A single root task which every other task depends on.
+     */
+    @Benchmark
+    public void wideFanOut() throws InterruptedException {
+        final CountDownLatch loadingCompleted = new CountDownLatch(1);
+        final LoadingManager<Application> loadingManager = createLoadingManager(loadingCompleted);
+
+        for (int i = 0; i < tasks; i++) {
+            loadingManager.registerForLoading(new FanOutTask());
+        }
+
+        loadingManager.registerForLoading(new RootTask());
+        load(loadingManager, loadingCompleted);
+    }
+
+    /**
+     * Tasks spread over a chain of dependent classes registered in reverse order, so most tasks have to wait for the
+     * class before them.
+     */
+    @Benchmark
+    public void deepChain() throws InterruptedException {
+        final CountDownLatch loadingCompleted = new CountDownLatch(1);
+        final LoadingManager<Application> loadingManager = createLoadingManager(loadingCompleted);
+        final int tasksPerLink = Math.max(1, tasks / 8);
+
+        for (int i = 0; i < tasksPerLink; i++) {
+            loadingManager.registerForLoading(new ChainTask7());
+            loadingManager.registerForLoading(new ChainTask6());
+            loadingManager.registerForLoading(new ChainTask5());
+            loadingManager.registerForLoading(new ChainTask4());
+            loadingManager.registerForLoading(new ChainTask3());
+            loadingManager.registerForLoading(new ChainTask2());
+            loadingManager.registerForLoading(new ChainTask1());
+            loadingManager.registerForLoading(new RootTask());
+        }
+
+        load(loadingManager, loadingCompleted);
+    }
+
+    /**
+     * A mix of CPU bound tasks and tasks sleeping for a millisecond to stand in for disk reads. Only a tenth of the task
+     * count is used to keep the run time sensible.
+     */
+    @Benchmark
+    public void mixedCpuAndIo() throws InterruptedException {
+        final CountDownLatch loadingCompleted = new CountDownLatch(1);
+        final LoadingManager<Application> loadingManager = createLoadingManager(loadingCompleted);
+
+        for (int i = 0; i < tasks / 10; i++) {
+            loadingManager.registerForLoading(i % 2 == 0 ? new CpuTask() : new IoTask());
+        }
+
+        load(loadingManager, loadingCompleted);
+    }
+
+    private LoadingManager<Application> createLoadingManager(final CountDownLatch loadingCompleted) {
+        return new LoadingManager<>(application, executor, threads, (message, completed, progress) -> {
+            if (completed) {
+                loadingCompleted.countDown();
+            }
+        });
+    }
+
+    private void load(final LoadingManager<Application> loadingManager, final CountDownLatch loadingCompleted) throws InterruptedException {
+        loadingManager.start();
+
+        if (!loadingCompleted.await(1, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Loading didn't complete within a minute");
+        }
+
+        application.checkErrors();
+    }
+
+    private static class NoOpTask implements LoadingTask<Application> {
+
+        @Override
+        public void load(final Application application) {
+
+        }
+    }
+
+    private static class RootTask extends NoOpTask {
+    }
+
+    @DependsOn(RootTask.class)
+    private static class FanOutTask extends NoOpTask {
+    }
+
+    @DependsOn(RootTask.class)
+    private static class ChainTask1 extends NoOpTask {
+    }
+
+    @DependsOn(ChainTask1.class)
+    private static class ChainTask2 extends NoOpTask {
+    }
+
+    @DependsOn(ChainTask2.class)
+    private static class ChainTask3 extends NoOpTask {
+    }
+
+    @DependsOn(ChainTask3.class)
+    private static class ChainTask4 extends NoOpTask {
+    }
+
+    @DependsOn(ChainTask4.class)
+    private static class ChainTask5 extends NoOpTask {
+    }
+
+    @DependsOn(ChainTask5.class)
+    private static class ChainTask6 extends NoOpTask {
+    }
+
+    @DependsOn(ChainTask6.class)
+    private static class ChainTask7 extends NoOpTask {
+    }
+
+    private static class CpuTask extends NoOpTask {
+
+        @Override
+        public void load(final Application application) {
+            Blackhole.consumeCPU(CPU_TOKENS);
+        }
+    }
+
+    private static class IoTask extends NoOpTask {
+
+        @Override
+        public void load(final Application application) {
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.kendanware.jme3.taskloader;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides how many loader threads a {@link LoadingManager} should run based on how the loaded tasks spend their time.
+ * Loader threads report the wall clock and CPU time of every task they load and once per sample interval the number of
+ * threads is recalculated as
+ * <pre>
+ *     processors * (wall clock time / CPU time)
+ * </pre>
+ * which is the number of threads needed to keep the processors busy when tasks spend part of their time blocked on
+ * I/O. Processors reserved for the render thread aren't counted. Blocked time is only measured reliably while the
+ * processors aren't saturated, a saturated thread also waits for a processor, so while the loader threads use all of
+ * their processors the count is never raised and is brought down to the number of processors instead.
+ */
+final class AdaptiveThreadCount {
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+    private static final long SAMPLE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final double SATURATED_UTILISATION = 0.9;
+
+    private final int minThreads;
+    private final int maxThreads;
+    private final int processors;
+    private final LongAdder wallNanos = new LongAdder();
+    private final LongAdder cpuNanos = new LongAdder();
+    private final AtomicLong sampledAt = new AtomicLong(System.nanoTime());
+
+    /**
+     * Creates a new thread count.
+     *
+     * @param minThreads         the least number of threads to run.
+     * @param maxThreads         the most number of threads to run.
+     * @param reservedProcessors the number of processors to leave for the render thread and the rest of the game.
+     */
+    AdaptiveThreadCount(final int minThreads, final int maxThreads, final int reservedProcessors) {
+        this.minThreads = minThreads;
+        this.maxThreads = maxThreads;
+        this.processors = Math.max(1, Runtime.getRuntime().availableProcessors() - reservedProcessors);
+    }
+
+    /**
+     * Checks if the JVM can measure the CPU time of threads, without it the thread count can't adapt.
+     *
+     * @return true if CPU time can be measured.
+     */
+    static boolean isSupported() {
+        return THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_MX_BEAN.isThreadCpuTimeEnabled();
+    }
+
+    /**
+     * Returns the CPU time used by the calling thread.
+     *
+     * @return the CPU time in nanoseconds.
+     */
+    static long currentThreadCpuTime() {
+        return THREAD_MX_BEAN.getCurrentThreadCpuTime();
+    }
+
+    /**
+     * Returns the number of threads to start with, one per processor within the bounds.
+     *
+     * @return the initial number of threads.
+     */
+    int getInitialThreads() {
+        return clamp(processors);
+    }
+
+    /**
+     * Records the time a task took on a loader thread and recalculates the number of threads if the sample interval has
+     * passed. Only one of the threads recording at the same time does the recalculation.
+     *
+     * @param wallNanos      the wall clock time the task took.
+     * @param cpuNanos       the CPU time the task used.
+     * @param currentThreads the current number of threads.
+     * @param tasksWaiting   true if ready tasks are waiting for a loader thread.
+     * @return the new number of threads, which is the current number unless it has been recalculated.
+     */
+    int record(final long wallNanos, final long cpuNanos, final int currentThreads, final boolean tasksWaiting) {
+        this.wallNanos.add(wallNanos);
+        this.cpuNanos.add(cpuNanos);
+
+        final long now = System.nanoTime();
+        final long sampledAt = this.sampledAt.get();
+
+        if (now - sampledAt < SAMPLE_INTERVAL_NANOS || !this.sampledAt.compareAndSet(sampledAt, now)) {
+            return currentThreads;
+        }
+
+        final long sampledWallNanos = this.wallNanos.sumThenReset();
+        final long sampledCpuNanos = this.cpuNanos.sumThenReset();
+
+        if (sampledWallNanos == 0) {
+            return currentThreads;
+        }
+
+        final double utilisation = sampledCpuNanos / ((double) (now - sampledAt) * processors);
+
+        if (utilisation >= SATURATED_UTILISATION) {
+            return clamp(Math.min(currentThreads, processors));
+        }
+
+        final int threads = clamp((int) Math.round(processors * (double) sampledWallNanos / Math.max(1, sampledCpuNanos)));
+
+        // More threads are of no use while the ones we have are enough to keep the ready queue empty.
+        return threads > currentThreads && !tasksWaiting ? currentThreads : threads;
+    }
+
+    private int clamp(final int threads) {
+        return Math.max(minThreads, Math.min(maxThreads, threads));
+    }
+}
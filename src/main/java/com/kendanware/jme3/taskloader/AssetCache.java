@@ -0,0 +1,136 @@
+package com.kendanware.jme3.taskloader;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.ExecutionError;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import com.jme3.asset.AssetKey;
+import com.jme3.asset.AssetManager;
+import com.jme3.asset.CloneableSmartAsset;
+import com.jme3.asset.ModelKey;
+import com.jme3.scene.Spatial;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Loads assets through the {@link AssetManager} so that tasks running on different loader threads which request the same
+ * asset at the same time share a single load, the first task loads the asset while the others wait for it. Loaded assets
+ * are kept up to a maximum number of assets, the least recently used assets are evicted first.
+ * <p>
+ * Assets which are cloned by JME's own cache, like models, materials and textures, are cloned for every task so the
+ * cached instance is never modified. Other assets are shared between all tasks requesting them.
+ * </p>
+ * <pre>
+ *     final Spatial tree = TaskContext.current().getAssetCache().loadModel("Models/tree.j3o");
+ * </pre>
+ */
+public final class AssetCache {
+
+    /**
+     * The number of assets kept by the cache of a {@link LoadingManager} unless it is given another cache.
+     */
+    public static final long DEFAULT_MAXIMUM_SIZE = 256;
+
+    private final AssetManager assetManager;
+    private final Cache<AssetKey<?>, Object> assets;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param assetManager the asset manager to load the assets with.
+     * @param maximumSize  the maximum number of assets to keep.
+     */
+    public AssetCache(final AssetManager assetManager, final long maximumSize) {
+        if (assetManager == null) {
+            throw new IllegalArgumentException("assetManager is required");
+        }
+
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("maximumSize must not be negative");
+        }
+
+        this.assetManager = assetManager;
+        this.assets = CacheBuilder.newBuilder().maximumSize(maximumSize).recordStats().build();
+    }
+
+    /**
+     * Returns the asset for the provided key, loading it unless it is cached or being loaded by another task already. A
+     * failed load isn't cached, every task waiting for it gets the failure and the next request loads the asset again.
+     *
+     * @param assetKey the key of the asset.
+     * @param <V>      the type of the asset.
+     * @return the asset, or a clone of it if the asset is a {@link CloneableSmartAsset}.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V load(final AssetKey<V> assetKey) {
+        if (assetKey == null) {
+            throw new IllegalArgumentException("assetKey is required");
+        }
+
+        final Object asset;
+
+        try {
+            asset = assets.get(assetKey, () -> assetManager.loadAsset(assetKey));
+        } catch (final UncheckedExecutionException e) {
+            throw (RuntimeException) e.getCause();
+        } catch (final ExecutionError e) {
+            throw (Error) e.getCause();
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Failed to load " + assetKey, e.getCause());
+        }
+
+        if (asset instanceof CloneableSmartAsset) {
+            return (V) ((CloneableSmartAsset) asset).clone();
+        }
+
+        return (V) asset;
+    }
+
+    /**
+     * Returns a clone of the model with the provided name, see {@link #load(AssetKey)}.
+     *
+     * @param name the name of the model, e.g. "Models/tree.j3o".
+     * @return a clone of the model.
+     */
+    public Spatial loadModel(final String name) {
+        return load(new ModelKey(name));
+    }
+
+    /**
+     * Removes every asset from the cache. Assets which are being loaded are still handed to the tasks waiting for them.
+     */
+    public void invalidateAll() {
+        assets.invalidateAll();
+    }
+
+    /**
+     * Returns the number of cached assets.
+     *
+     * @return the number of cached assets.
+     */
+    public long size() {
+        return assets.size();
+    }
+
+    /**
+     * Returns how many times an asset has been loaded through the asset manager.
+     *
+     * @return the number of loads, including failed ones.
+     */
+    public long getLoadCount() {
+        return assets.stats().loadCount();
+    }
+
+    /**
+     * Returns how many requests have been answered from the cache or by waiting for a load of another task.
+     *
+     * @return the number of requests which didn't load the asset themselves.
+     */
+    public long getHitCount() {
+        final CacheStats stats = assets.stats();
+
+        // Guava counts waiting for a load of another thread as a miss.
+        return stats.requestCount() - stats.loadCount();
+    }
+}
@@ -0,0 +1,47 @@
+package com.kendanware.jme3.taskloader;
+
+import com.jme3.app.Application;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A loading task which loads asynchronously, e.g. by waiting on asynchronous file I/O or on a Callable enqueued on the
+ * render thread. {@link #loadAsync(Application)} is executed by a {@link LoaderThread} which moves on to the next task as
+ * soon as it returns. The task counts as loaded, both for progress and for
+ * {@link com.kendanware.jme3.taskloader.annotation.DependsOn}, once the returned future completes. This lets a few loader
+ * threads keep many I/O bound loads in flight.
+ * <p>
+ * The future may be completed on any thread, progress for the task is reported from that thread unless progress is
+ * delivered on the render thread, see {@link ProgressDelivery}. A future which completes exceptionally is reported
+ * through {@link Application#handleError(String, Throwable)} and still counts as loaded, like a task which throws. If the
+ * task is cancelled or times out the future is cancelled.
+ * </p>
+ * <pre>
+ *     public CompletableFuture&lt;?&gt; loadAsync(final SimpleApplication application) {
+ *         return CompletableFuture.supplyAsync(this::readLevelFile, ioExecutor)
+ *                 .thenAccept(level -&gt; this.level = level);
+ *     }
+ * </pre>
+ */
+public interface AsyncLoadingTask<T extends Application> extends LoadingTask<T> {
+
+    /**
+     * This method will be called by the {@link LoaderThread} and should start loading and return without waiting for
+     * the load to complete.
+     *
+     * @param t the application instance provided to the {@link LoadingManager}.
+     * @return a future which completes once the task has been loaded.
+     */
+    CompletableFuture<?> loadAsync(final T t);
+
+    /**
+     * Loads the task synchronously by waiting for the future returned by {@link #loadAsync(Application)}, the
+     * {@link LoadingManager} never calls this.
+     *
+     * @param t the application instance provided to the {@link LoadingManager}.
+     */
+    @Override
+    default void load(final T t) {
+        loadAsync(t).join();
+    }
+}
@@ -0,0 +1,262 @@
+package com.kendanware.jme3.taskloader;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The progress of one batch started through {@link LoadingManager#start()}. Loader threads report completed tasks without
+ * taking any lock, the completed cost is summed in striped adders and whether the batch has completed is decided by a
+ * single compare and set.
+ * <p>
+ * The state is the number of tasks which haven't been loaded yet, or a negative value once the batch has completed or
+ * been cancelled. Loading the last task swaps 1 for {@link #COMPLETED} instead of decrementing, and tasks merged into the
+ * batch only add to a positive count, so exactly one thread completes a batch and no task can be merged into a batch
+ * which has completed.
+ * </p>
+ * <p>
+ * A batch started through {@link LoadingManager#preload()} is preloading until it is promoted by
+ * {@link LoadingManager#start()}. Completing a preloading batch is held back and reported by whoever promotes it, which is
+ * again decided by a single atomic swap so the completion is reported exactly once.
+ * </p>
+ * <p>
+ * Progress is reported by the loader threads themselves, which may have counted their task just before the batch
+ * completed. Threads reporting progress are counted as well, and the completion is reported by whoever brings that count
+ * to zero after the batch has completed, so the completion is always the last thing reported for a batch.
+ * </p>
+ */
+final class Batch {
+
+    private static final int COMPLETED = -1;
+    private static final int CANCELLED = -2;
+    private static final int LOADING = 0;
+    private static final int PRELOADING = 1;
+    private static final int PRELOADED = 2;
+    private static final int REPORTING_COMPLETION = 1 << 30;
+
+    private final int number;
+    private final long startedAt = System.nanoTime();
+    private final AtomicInteger state;
+    private final AtomicInteger mode;
+    private final AtomicInteger reporting = new AtomicInteger();
+    private final LongAdder loadedTasks = new LongAdder();
+    private final DoubleAdder loadedCost = new DoubleAdder();
+    private volatile double costToLoad;
+    private volatile String completionMessage;
+
+    /**
+     * Creates a new batch, a batch without tasks is completed straight away.
+     *
+     * @param number     the number of the batch, only used for logging.
+     * @param tasks      the number of tasks in the batch.
+     * @param cost       the total cost of the tasks.
+     * @param preloading true if the batch is loaded in the background until it is promoted.
+     */
+    Batch(final int number, final int tasks, final double cost, final boolean preloading) {
+        this.number = number;
+        this.state = new AtomicInteger(tasks > 0 ? tasks : COMPLETED);
+        this.mode = new AtomicInteger(preloading ? PRELOADING : LOADING);
+        this.costToLoad = cost;
+    }
+
+    /**
+     * Adds tasks to the batch unless it has completed or been cancelled. Must be called while holding the lock of the
+     * LoadingManager.
+     *
+     * @param tasks the number of tasks to add.
+     * @param cost  the total cost of the tasks.
+     * @return true if the tasks have been added.
+     */
+    boolean merge(final int tasks, final double cost) {
+        int pending;
+
+        do {
+            pending = state.get();
+
+            if (pending <= 0) {
+                return false;
+            }
+        } while (!state.compareAndSet(pending, pending + tasks));
+
+        // Tasks are only merged and withdrawn while holding the lock of the LoadingManager.
+        costToLoad += cost;
+
+        return true;
+    }
+
+    /**
+     * Takes back tasks which were merged into the batch but couldn't be scheduled. Must be called while holding the lock
+     * of the LoadingManager.
+     *
+     * @param tasks the number of tasks to take back.
+     * @param cost  the total cost of the tasks.
+     * @return true if this completed the batch because every other task has been loaded already.
+     */
+    boolean withdraw(final int tasks, final double cost) {
+        costToLoad -= cost;
+
+        return countDown(tasks);
+    }
+
+    /**
+     * Records that a task of the batch has been loaded.
+     *
+     * @param cost the cost of the task.
+     * @return true if this was the last task and the calling thread has completed the batch.
+     */
+    boolean taskLoaded(final double cost) {
+        loadedTasks.increment();
+        loadedCost.add(cost);
+
+        return countDown(1);
+    }
+
+    /**
+     * Cancels the batch unless it has completed or been cancelled already.
+     *
+     * @return true if this call has cancelled the batch.
+     */
+    boolean cancel() {
+        int pending;
+
+        do {
+            pending = state.get();
+
+            if (pending < 0) {
+                return false;
+            }
+        } while (!state.compareAndSet(pending, CANCELLED));
+
+        return true;
+    }
+
+    /**
+     * Holds back the completion of a preloading batch, called by the thread which has completed the batch.
+     *
+     * @return true if the batch is preloading and its completion will be reported once it is promoted.
+     */
+    boolean holdCompletion() {
+        return mode.compareAndSet(PRELOADING, PRELOADED);
+    }
+
+    /**
+     * Promotes a preloading batch to a batch which is loaded at full speed and reports its progress.
+     *
+     * @return true if the batch completed while preloading and the caller has to report its completion.
+     */
+    boolean promote() {
+        return mode.getAndSet(LOADING) == PRELOADED;
+    }
+
+    /**
+     * Called before reporting progress which doesn't complete the batch. Fails once the completion of the batch is being
+     * reported, so a thread which counted its task before the batch completed can't report its progress after that.
+     *
+     * @return true if the caller may report its progress and has to call {@link #progressReported()} afterwards.
+     */
+    boolean reportProgress() {
+        int threads;
+
+        do {
+            threads = reporting.get();
+
+            if (threads >= REPORTING_COMPLETION) {
+                return false;
+            }
+        } while (!reporting.compareAndSet(threads, threads + 1));
+
+        return true;
+    }
+
+    /**
+     * Called once progress allowed by {@link #reportProgress()} has been reported.
+     *
+     * @return true if the completion of the batch has been waiting for this progress and the caller has to report it,
+     * using {@link #getCompletionMessage()}.
+     */
+    boolean progressReported() {
+        return reporting.decrementAndGet() == REPORTING_COMPLETION;
+    }
+
+    /**
+     * Called once by whoever reports the completion of the batch. If other threads are still reporting progress the
+     * completion is handed to the last of them, so progress is never reported after the completion.
+     *
+     * @param message the message to report the completion with.
+     * @return true if no progress is being reported and the caller has to report the completion straight away.
+     */
+    boolean reportCompletion(final String message) {
+        completionMessage = message;
+
+        return reporting.getAndAdd(REPORTING_COMPLETION) == 0;
+    }
+
+    String getCompletionMessage() {
+        return completionMessage;
+    }
+
+    boolean isPreloading() {
+        return mode.get() != LOADING;
+    }
+
+    boolean isRunning() {
+        return state.get() > 0;
+    }
+
+    boolean isCompleted() {
+        return state.get() == COMPLETED;
+    }
+
+    boolean isCancelled() {
+        return state.get() == CANCELLED;
+    }
+
+    int getNumber() {
+        return number;
+    }
+
+    long getStartedAt() {
+        return startedAt;
+    }
+
+    long getLoadedTasks() {
+        return loadedTasks.sum();
+    }
+
+    double getLoadedCost() {
+        return loadedCost.sum();
+    }
+
+    double getCostToLoad() {
+        return costToLoad;
+    }
+
+    /**
+     * Returns the loaded share of the total cost of the batch.
+     *
+     * @return a value between 0.0 and 1.0, always 1.0 once the batch has completed.
+     */
+    float getProgress() {
+        if (isCompleted()) {
+            return 1.0f;
+        }
+
+        final double costToLoad = this.costToLoad;
+
+        return costToLoad > 0.0 ? (float) Math.min(1.0, loadedCost.sum() / costToLoad) : 0.0f;
+    }
+
+    private boolean countDown(final int tasks) {
+        int pending;
+
+        do {
+            pending = state.get();
+
+            if (pending <= 0) {
+                return false;
+            }
+        } while (!state.compareAndSet(pending, pending > tasks ? pending - tasks : COMPLETED));
+
+        return pending <= tasks;
+    }
+}
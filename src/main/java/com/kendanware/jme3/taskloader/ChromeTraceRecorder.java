@@ -0,0 +1,157 @@
+package com.kendanware.jme3.taskloader;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A {@link LoadingListener} which records a timeline of every loaded task and writes it in the Chrome trace event
+ * format, open the file in {@code chrome://tracing} or <a href="https://ui.perfetto.dev">Perfetto</a> to see which task
+ * ran on which loader thread and when.
+ * <p>
+ * Events are recorded into arrays allocated up front, recording a task neither allocates nor locks. Once the capacity
+ * has been used up further tasks are dropped and counted, see {@link #getDroppedEvents()}. The task class of an event
+ * is stored last with a volatile write, which publishes the rest of the event to the thread writing the trace, so a
+ * trace written while tasks are still being recorded leaves out the unfinished events rather than tearing them.
+ * </p>
+ * <pre>
+ * final ChromeTraceRecorder recorder = new ChromeTraceRecorder(10000);
+ * loadingManager.addLoadingListener(recorder);
+ * // Once loading has completed:
+ * recorder.write(Paths.get("loading-trace.json"));
+ * </pre>
+ */
+public class ChromeTraceRecorder implements LoadingListener {
+
+    private final long origin = System.nanoTime();
+    private final AtomicReferenceArray<Class<?>> taskClasses;
+    private final long[] threadIds;
+    private final long[] readyAt;
+    private final long[] startedAt;
+    private final long[] completedAt;
+    private final AtomicInteger events = new AtomicInteger();
+
+    /**
+     * Creates a recorder which can hold the provided number of tasks.
+     *
+     * @param capacity the maximum number of tasks to record.
+     */
+    public ChromeTraceRecorder(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be greater than 0");
+        }
+
+        this.taskClasses = new AtomicReferenceArray<>(capacity);
+        this.threadIds = new long[capacity];
+        this.readyAt = new long[capacity];
+        this.startedAt = new long[capacity];
+        this.completedAt = new long[capacity];
+    }
+
+    @Override
+    public void taskCompleted(final LoadingTask loadingTask, final long threadId, final long readyAt, final long startedAt, final long completedAt) {
+        final int index = events.getAndIncrement();
+
+        if (index >= taskClasses.length()) {
+            return;
+        }
+
+        this.threadIds[index] = threadId;
+        this.readyAt[index] = readyAt;
+        this.startedAt[index] = startedAt;
+        this.completedAt[index] = completedAt;
+        // Publishes the event, write() only reads the rest of it once it has seen the task class.
+        this.taskClasses.set(index, loadingTask.getClass());
+    }
+
+    /**
+     * Returns the number of tasks which have been recorded.
+     *
+     * @return the number of recorded tasks.
+     */
+    public int getRecordedEvents() {
+        return Math.min(events.get(), taskClasses.length());
+    }
+
+    /**
+     * Returns the number of tasks which weren't recorded because the capacity had been used up.
+     *
+     * @return the number of dropped tasks.
+     */
+    public int getDroppedEvents() {
+        return Math.max(0, events.get() - taskClasses.length());
+    }
+
+    /**
+     * Writes the recorded tasks as a Chrome trace JSON file. Each task becomes a complete event on the thread which
+     * loaded it, the time it waited for a loader thread is included as an argument. This should be called once loading
+     * has completed, e.g. from the progress callback, tasks which are still being recorded while writing are left out.
+     *
+     * @param path the file to write.
+     * @throws IOException if the file can't be written.
+     */
+    public void write(final Path path) throws IOException {
+        final int recorded = getRecordedEvents();
+
+        try (final BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            writer.write("{\"traceEvents\":[");
+
+            boolean first = true;
+
+            for (int index = 0; index < recorded; index++) {
+                final Class<?> taskClass = taskClasses.get(index);
+
+                if (taskClass == null) {
+                    continue;
+                }
+
+                if (!first) {
+                    writer.write(',');
+                }
+
+                first = false;
+                writer.write("\n{\"name\":\"");
+                writer.write(escape(taskClass.getSimpleName().isEmpty() ? taskClass.getName() : taskClass.getSimpleName()));
+                writer.write("\",\"cat\":\"task\",\"ph\":\"X\",\"pid\":1,\"tid\":");
+                writer.write(Long.toString(threadIds[index]));
+                writer.write(",\"ts\":");
+                writer.write(toMicros(startedAt[index] - origin));
+                writer.write(",\"dur\":");
+                writer.write(toMicros(completedAt[index] - startedAt[index]));
+                writer.write(",\"args\":{\"class\":\"");
+                writer.write(escape(taskClass.getName()));
+                writer.write("\",\"queueWaitUs\":");
+                writer.write(toMicros(startedAt[index] - readyAt[index]));
+                writer.write("}}");
+            }
+
+            writer.write("\n]}\n");
+        }
+    }
+
+    private static String toMicros(final long nanos) {
+        return Double.toString(nanos / 1000.0);
+    }
+
+    private static String escape(final String value) {
+        final StringBuilder escaped = new StringBuilder(value.length());
+
+        for (int index = 0; index < value.length(); index++) {
+            final char character = value.charAt(index);
+
+            if (character == '"' || character == '\\') {
+                escaped.append('\\').append(character);
+            } else if (character < 0x20) {
+                escaped.append(String.format("\\u%04x", (int) character));
+            } else {
+                escaped.append(character);
+            }
+        }
+
+        return escaped.toString();
+    }
+}
@@ -1,10 +1,9 @@
 package com.kendanware.jme3.taskloader;
 
-import com.kendanware.jme3.taskloader.annotation.DependsOn;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 /**
@@ -30,27 +29,38 @@ public class LoaderThread implements Runnable {
     public void run() {
         LoadingTask loadingTask;
 
-        while ((loadingTask = loadingManager.getNextTask()) != null) {
-            final DependsOn dependsOn = loadingTask.getClass().getAnnotation(DependsOn.class);
+        do {
+            // The loading manager only hands out tasks whose dependencies have been loaded and blocks while nothing is
+            // ready, so every task we get here can be loaded straight away. Stop early if the manager wants fewer threads.
+            while (!loadingManager.hasSurplusLoaderThreads() && (loadingTask = loadingManager.getNextTask()) != null) {
+                CompletableFuture<?> future = null;
 
-            // If this loading task has an annotation and indicates it depends on something, lets put the task back
-            // on the queue and try another task instead.
-            if (dependsOn != null && !loadingManager.hasBeenLoaded(dependsOn.value())) {
-                loadingManager.registerForLoading(loadingTask);
-                LOGGER.trace("{} depends on {}, adding this task back into the queue", loadingTask.getClass().getSimpleName(), Arrays.toString(dependsOn.value()));
-                continue;
-            }
+                try {
+                    LOGGER.trace("Loading task {}", loadingTask.getClass().getSimpleName());
 
-            try {
-                LOGGER.trace("Loading task {}", loadingTask.getClass().getSimpleName());
-                loadingTask.load(loadingManager.getApplication());
-            } catch (Exception e) {
-                LOGGER.error("Exception caught during loading", e);
-                loadingManager.getApplication().handleError(e.getLocalizedMessage(), e);
-            } finally {
-                LOGGER.trace("Loaded task {}", loadingTask.getClass().getSimpleName());
-                loadingTaskCompletedCallback.accept(loadingTask);
+                    if (loadingTask instanceof AsyncLoadingTask) {
+                        future = ((AsyncLoadingTask) loadingTask).loadAsync(loadingManager.getApplication());
+                    } else {
+                        loadingTask.load(loadingManager.getApplication());
+                    }
+                } catch (Exception e) {
+                    if (TaskContext.current().isCancelled()) {
+                        // Whatever the task threw is most likely caused by being cancelled.
+                        LOGGER.debug("Cancelled task {} stopped with an exception", loadingTask.getClass().getSimpleName(), e);
+                    } else {
+                        LOGGER.error("Exception caught during loading", e);
+                        loadingManager.getApplication().handleError(e.getLocalizedMessage(), e);
+                    }
+                } finally {
+                    if (future != null) {
+                        // The task completes once its future does, move on to the next task in the meantime.
+                        loadingManager.acceptAsync((AsyncLoadingTask) loadingTask, future);
+                    } else {
+                        LOGGER.trace("Loaded task {}", loadingTask.getClass().getSimpleName());
+                        loadingTaskCompletedCallback.accept(loadingTask);
+                    }
+                }
             }
-        }
+        } while (loadingManager.releaseLoaderThread());
     }
 }
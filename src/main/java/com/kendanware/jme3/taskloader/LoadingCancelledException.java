@@ -0,0 +1,11 @@
+package com.kendanware.jme3.taskloader;
+
+/**
+ * Thrown by {@link TaskContext#throwIfCancelled()} to stop a {@link LoadingTask} which has been cancelled.
+ */
+public class LoadingCancelledException extends RuntimeException {
+
+    public LoadingCancelledException(final String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,36 @@
+package com.kendanware.jme3.taskloader;
+
+/**
+ * A listener which is told when tasks start and finish loading, register it with
+ * {@link LoadingManager#addLoadingListener(LoadingListener)}. Listeners are called on the thread which started or
+ * completed the task, that is a loader thread or, for the second stage of a {@link StagedLoadingTask}, the render thread,
+ * so implementations must be thread safe and should return quickly.
+ * <p>
+ * All timestamps are {@link System#nanoTime()} values. Both methods do nothing by default so only the events of interest
+ * need to be implemented.
+ * </p>
+ */
+public interface LoadingListener {
+
+    /**
+     * Called when a loader thread has taken a task and is about to load it.
+     *
+     * @param loadingTask    the task which is about to be loaded.
+     * @param threadId       the id of the thread which loads the task.
+     * @param queueWaitNanos the time the task was ready to be loaded but waited for a loader thread.
+     */
+    default void taskStarted(final LoadingTask loadingTask, final long threadId, final long queueWaitNanos) {
+    }
+
+    /**
+     * Called when a task has been loaded and marked as loaded, after any tasks depending on it have been released.
+     *
+     * @param loadingTask the task which has been loaded.
+     * @param threadId    the id of the thread which loaded the task.
+     * @param readyAt     when all dependencies of the task had been loaded and it was queued up for a loader thread.
+     * @param startedAt   when a loader thread started loading the task.
+     * @param completedAt when the task completed.
+     */
+    default void taskCompleted(final LoadingTask loadingTask, final long threadId, final long readyAt, final long startedAt, final long completedAt) {
+    }
+}
@@ -1,19 +1,48 @@
 package com.kendanware.jme3.taskloader;
 
-import com.google.common.util.concurrent.AtomicDouble;
 import com.jme3.app.Application;
-import com.kendanware.jme3.taskloader.annotation.Description;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
 
 /**
  * The LoadingManager is the brain of the async asset loading system. It will coordinate tasks for loading and create
  * the threads to consume the tasks. It will report any progress back to your code using a {@link com.kendanware.jme3.taskloader.ProgressCallback}.
+ * <p>
+ * A LoadingManager can be reused for several loading phases, e.g. boot, main menu and each streamed level chunk. Once a
+ * batch of tasks has completed new tasks can be registered and {@link #start()} called again, tasks loaded in earlier
+ * batches still satisfy {@link com.kendanware.jme3.taskloader.annotation.DependsOn} until {@link #reset()} is called.
+ * </p>
  *
  * @author Daniel Johansson
  * @since 2015-01-17
@@ -21,23 +50,39 @@ import java.util.function.Consumer;
 public class LoadingManager<T extends Application> implements Consumer<LoadingTask> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(LoadingManager.class);
+    private static final long DEFAULT_RENDER_THREAD_BUDGET_MILLIS = 4;
+    private static final int DEFAULT_PRELOAD_THREADS = 1;
+    private static final LoadingListener[] NO_LISTENERS = new LoadingListener[0];
 
     private final T application;
-    private final Queue<LoadingTask> loadingTasks = new ConcurrentLinkedQueue<>();
-    private final int threads;
-    private boolean loadingStarted = false;
-    private boolean loadingComplete = false;
-    private long loadingStartedAt;
+    private final Queue<TaskNode> loadingTasks = new ConcurrentLinkedQueue<>();
+    private final AtomicLong registeredTasks = new AtomicLong();
+    private final TaskGraph taskGraph = new TaskGraph();
+    private final LoadingMetrics metrics = new LoadingMetrics(taskGraph);
+    private final Map<ResultKey<?>, Object> results = new ConcurrentHashMap<>();
+    private final List<StagedLoadingTask> heldStages = new ArrayList<>();
+    private volatile LoadingListener[] loadingListeners = NO_LISTENERS;
+    private volatile AssetCache assetCache;
+    private volatile int threads;
+    private volatile int preloadThreads = DEFAULT_PRELOAD_THREADS;
+    private volatile boolean preloadingPaused;
+    private volatile AdaptiveThreadCount adaptiveThreadCount;
+    private final Executor executor;
+    private final AtomicInteger activeLoaderThreads = new AtomicInteger();
     private final ProgressCallback progressCallback;
-    private float progress;
-    private Queue<Class<? extends LoadingTask>> loadedTasks = new ConcurrentLinkedQueue<>();
-    private final AtomicDouble totalProgress = new AtomicDouble();
-    private double progressPerAsset;
-    private int tasksToLoad;
+    private volatile Batch batch;
+    private volatile int batches;
+    private volatile LoadingProfile loadingProfile = new LoadingProfile();
+    private volatile Path profilePath;
+    private volatile ProgressDelivery progressDelivery = ProgressDelivery.IMMEDIATE;
+    private volatile long taskTimeoutNanos;
+    private final LoadingManagerAppState appState;
 
     /**
      * The LoadingManager is responsible for coordinating the loading work, starting threads and reporting back when loading
-     * completes. This constructor will default the number threads to use to {@link Runtime#availableProcessors()}.
+     * completes. This constructor will default the number threads to use to {@link Runtime#availableProcessors()}. The
+     * threads are daemon threads which are kept alive for a short while after a batch completes so they can be reused
+     * by the next batch.
      *
      * @param application      the JME3 application class.
      * @param progressCallback a callback to call when loading progress changes.
@@ -48,95 +93,1005 @@ public class LoadingManager<T extends Application> implements Consumer<LoadingTa
 
     /**
      * The LoadingManager is responsible for coordinating the loading work, starting threads and reporting back when loading
-     * completes.
+     * completes. The threads are daemon threads which are kept alive for a short while after a batch completes so they
+     * can be reused by the next batch.
      *
      * @param application      the JME3 application class.
      * @param numberOfThreads  number of threads to use for consuming the task queue.
      * @param progressCallback a callback to call when loading progress changes.
      */
     public LoadingManager(final T application, final int numberOfThreads, final ProgressCallback progressCallback) {
+        this(application, new LoaderThreadExecutor(), numberOfThreads, progressCallback);
+    }
+
+    /**
+     * The LoadingManager is responsible for coordinating the loading work and reporting back when loading completes. This
+     * constructor runs the loader threads on the provided executor instead of creating new threads and will default the
+     * number of loader threads to {@link Runtime#availableProcessors()}.
+     *
+     * @param application      the JME3 application class.
+     * @param executor         the executor to run the loader threads on.
+     * @param progressCallback a callback to call when loading progress changes.
+     * @see #LoadingManager(Application, Executor, int, ProgressCallback)
+     */
+    public LoadingManager(final T application, final Executor executor, final ProgressCallback progressCallback) {
+        this(application, executor, Runtime.getRuntime().availableProcessors(), progressCallback);
+    }
+
+    /**
+     * The LoadingManager is responsible for coordinating the loading work and reporting back when loading completes. This
+     * constructor runs the loader threads on the provided executor instead of creating new threads, which means an
+     * existing thread pool can be shared with the rest of the game and reused between loads.
+     * <p>
+     * Each loader thread occupies one thread of the executor until loading completes, any executor works as long as it
+     * eventually runs every submitted loader thread. A {@link java.util.concurrent.ForkJoinPool} or, on JDK 21 and newer,
+     * {@code Executors.newVirtualThreadPerTaskExecutor()} are good choices, the latter is well suited for tasks which
+     * spend most of their time blocked on disk reads.
+     * </p>
+     *
+     * @param application      the JME3 application class.
+     * @param executor         the executor to run the loader threads on.
+     * @param numberOfThreads  number of loader threads to submit to the executor for consuming the task queue.
+     * @param progressCallback a callback to call when loading progress changes.
+     */
+    public LoadingManager(final T application, final Executor executor, final int numberOfThreads, final ProgressCallback progressCallback) {
         if (progressCallback == null) {
             throw new IllegalArgumentException("progressCallback is required");
         }
 
+        if (executor == null) {
+            throw new IllegalArgumentException("executor is required");
+        }
+
         this.application = application;
         this.progressCallback = progressCallback;
+        this.executor = executor;
         this.threads = numberOfThreads;
+        this.appState = new LoadingManagerAppState(this, progressCallback, TimeUnit.MILLISECONDS.toNanos(DEFAULT_RENDER_THREAD_BUDGET_MILLIS));
+    }
+
+    /**
+     * Registers a task for loading, it will be added to a queue and consumed by a {@link com.kendanware.jme3.taskloader.LoaderThread}
+     * once loading has been started and all of its dependencies have been loaded.
+     * <p>
+     * The cost of the task is taken from {@link com.kendanware.jme3.taskloader.annotation.Cost} or, if there isn't one,
+     * from the average load time of the task class recorded in the {@link LoadingProfile}.
+     * </p>
+     * <p>
+     * Tasks registered while a batch is loading, for example from within another task, are added straight into the
+     * running dependency graph and become part of that batch. Their dependencies are checked straight away, like
+     * {@link #start()} checks them. Tasks registered after a batch has completed wait for the next call to {@link #start()}.
+     * </p>
+     *
+     * @param loadingTask the task to register for loading. Hint: Can be a lambda as {@link com.kendanware.jme3.taskloader.LoadingTask} is a functional interface.
+     * @return a handle other tasks can depend on, see {@link #registerForLoading(LoadingTask, TaskHandle...)}.
+     * @throws IllegalStateException if a batch is loading and the task depends on a task which has not been registered
+     *                               or whose batch has been cancelled.
+     * @see #registerForLoading(LoadingTask, int)
+     */
+    public TaskHandle registerForLoading(final LoadingTask loadingTask) {
+        return registerForLoading(loadingTask, TaskMetadata.of(loadingTask).getPriority());
+    }
+
+    /**
+     * Registers a task for loading which isn't loaded until the tasks behind the provided handles have been loaded, in
+     * addition to anything declared through {@link com.kendanware.jme3.taskloader.annotation.DependsOn}. Unlike a class
+     * dependency this waits for exactly those task instances.
+     *
+     * @param loadingTask  the task to register for loading.
+     * @param dependencies handles returned when registering the tasks this task depends on.
+     * @return a handle other tasks can depend on.
+     * @see #registerForLoading(LoadingTask)
+     */
+    public TaskHandle registerForLoading(final LoadingTask loadingTask, final TaskHandle... dependencies) {
+        final List<TaskNode> handleDependencies = new ArrayList<>(dependencies.length);
+
+        for (final TaskHandle dependency : dependencies) {
+            if (!(dependency instanceof TaskNode)) {
+                throw new IllegalArgumentException("dependencies must be handles returned by registerForLoading()");
+            }
+
+            handleDependencies.add((TaskNode) dependency);
+        }
+
+        final TaskNode taskNode = createTaskNode(loadingTask, TaskMetadata.of(loadingTask).getPriority());
+        taskNode.handleDependencies = handleDependencies;
+
+        return register(taskNode);
+    }
+
+    /**
+     * Registers a task for loading with a priority which overrides any priority declared through
+     * {@link com.kendanware.jme3.taskloader.annotation.Priority}. When several tasks are ready to be loaded the ones with
+     * the highest priority are loaded first.
+     *
+     * @param loadingTask the task to register for loading.
+     * @param priority    the priority of the task, tasks without a declared priority have a priority of 0.
+     * @return a handle other tasks can depend on, see {@link #registerForLoading(LoadingTask, TaskHandle...)}.
+     * @see #registerForLoading(LoadingTask)
+     */
+    public TaskHandle registerForLoading(final LoadingTask loadingTask, final int priority) {
+        return register(createTaskNode(loadingTask, priority));
+    }
+
+    /**
+     * Registers a task for loading with a priority and a cost which override anything declared through
+     * {@link com.kendanware.jme3.taskloader.annotation.Priority} and {@link com.kendanware.jme3.taskloader.annotation.Cost}.
+     * The cost decides how far the progress moves when this task completes relative to the other tasks in the batch.
+     *
+     * @param loadingTask the task to register for loading.
+     * @param priority    the priority of the task, tasks without a declared priority have a priority of 0.
+     * @param cost        the estimated cost of the task, tasks without a declared cost have a cost of 1.0.
+     * @return a handle other tasks can depend on, see {@link #registerForLoading(LoadingTask, TaskHandle...)}.
+     * @see #registerForLoading(LoadingTask)
+     */
+    public TaskHandle registerForLoading(final LoadingTask loadingTask, final int priority, final double cost) {
+        if (!(cost > 0.0)) {
+            throw new IllegalArgumentException("cost must be greater than 0");
+        }
+
+        return register(new TaskNode(loadingTask, priority, cost, registeredTasks.getAndIncrement()));
+    }
+
+    /**
+     * Registers several tasks for loading at once, like calling {@link #registerForLoading(LoadingTask)} for each of them
+     * but taking the lock of the LoadingManager only once, which adds up when registering thousands of tasks.
+     *
+     * @param tasks the tasks to register for loading.
+     * @return a handle per task in the order of the provided tasks.
+     * @throws IllegalStateException if a batch is loading and a task depends on a task which has not been registered or
+     *                               the dependencies between the tasks are circular, none of the tasks is registered then.
+     * @see #registerManifest(LoadingManifest, Function)
+     */
+    public List<TaskHandle> registerAllForLoading(final Collection<? extends LoadingTask> tasks) {
+        final List<TaskNode> taskNodes = new ArrayList<>(tasks.size());
+        long sequence = registeredTasks.getAndAdd(tasks.size());
+
+        for (final LoadingTask loadingTask : tasks) {
+            taskNodes.add(createTaskNode(loadingTask, TaskMetadata.of(loadingTask).getPriority(), sequence++));
+        }
+
+        registerAll(taskNodes);
+
+        return Collections.unmodifiableList(taskNodes);
+    }
+
+    /**
+     * Registers a task for every entry of a manifest, see {@link #registerManifest(LoadingManifest, Function, boolean)}.
+     * The tasks are created on the calling thread.
+     *
+     * @param loadingManifest the manifest to register.
+     * @param taskFactory     creates the task for an entry of the manifest.
+     * @return the handles of the tasks by the path of their entry.
+     */
+    public Map<String, TaskHandle> registerManifest(final LoadingManifest loadingManifest, final Function<LoadingManifest.Entry, LoadingTask> taskFactory) {
+        return registerManifest(loadingManifest, taskFactory, false);
+    }
+
+    /**
+     * Registers a task for every entry of a manifest. Each task is loaded after the tasks of the entries it depends on,
+     * in addition to anything declared through {@link com.kendanware.jme3.taskloader.annotation.DependsOn}, and the
+     * cost of an entry overrides the cost of its task. All tasks are registered at once, like
+     * {@link #registerAllForLoading(Collection)} does.
+     * <p>
+     * Creating thousands of tasks can take a while, with parallel set to true the task factory is called from the
+     * common {@link java.util.concurrent.ForkJoinPool} so a large level doesn't hold up the render thread before loading
+     * even begins. The task factory has to be thread safe then. Tasks keep the order of the manifest either way.
+     * </p>
+     *
+     * @param loadingManifest the manifest to register.
+     * @param taskFactory     creates the task for an entry of the manifest, e.g. depending on its type.
+     * @param parallel        true to create the tasks in parallel.
+     * @return the handles of the tasks by the path of their entry.
+     * @throws IllegalArgumentException if an entry depends on a path which isn't in the manifest or the task factory
+     *                                  returns null.
+     * @throws IllegalStateException    if a batch is loading and a task depends on a task which has not been registered
+     *                                  or the dependencies between the entries are circular, none of the tasks is
+     *                                  registered then.
+     */
+    public Map<String, TaskHandle> registerManifest(final LoadingManifest loadingManifest, final Function<LoadingManifest.Entry, LoadingTask> taskFactory, final boolean parallel) {
+        if (loadingManifest == null) {
+            throw new IllegalArgumentException("loadingManifest is required");
+        }
+
+        if (taskFactory == null) {
+            throw new IllegalArgumentException("taskFactory is required");
+        }
+
+        final List<LoadingManifest.Entry> entries = loadingManifest.getEntries();
+        final TaskNode[] taskNodes = new TaskNode[entries.size()];
+        final long firstSequence = registeredTasks.getAndAdd(entries.size());
+        final IntStream indices = IntStream.range(0, entries.size());
+
+        (parallel ? indices.parallel() : indices).forEach(index -> {
+            final LoadingManifest.Entry entry = entries.get(index);
+            final LoadingTask loadingTask = taskFactory.apply(entry);
+
+            if (loadingTask == null) {
+                throw new IllegalArgumentException("taskFactory returned no task for " + entry);
+            }
+
+            final int priority = TaskMetadata.of(loadingTask).getPriority();
+            final long sequence = firstSequence + index;
+            taskNodes[index] = entry.isCostDeclared() ? new TaskNode(loadingTask, priority, entry.getCost(), sequence) : createTaskNode(loadingTask, priority, sequence);
+        });
+
+        final Map<String, TaskNode> taskNodesByPath = new HashMap<>();
+
+        for (int index = 0; index < taskNodes.length; index++) {
+            taskNodesByPath.put(entries.get(index).getPath(), taskNodes[index]);
+        }
+
+        final Map<String, TaskHandle> handles = new LinkedHashMap<>();
+
+        for (int index = 0; index < taskNodes.length; index++) {
+            final LoadingManifest.Entry entry = entries.get(index);
+
+            if (!entry.getDependencies().isEmpty()) {
+                final List<TaskNode> handleDependencies = new ArrayList<>(entry.getDependencies().size());
+
+                for (final String dependency : entry.getDependencies()) {
+                    final TaskNode dependencyNode = taskNodesByPath.get(dependency);
+
+                    if (dependencyNode == null) {
+                        throw new IllegalArgumentException(entry.getPath() + " depends on " + dependency + " which isn't in the manifest");
+                    }
+
+                    handleDependencies.add(dependencyNode);
+                }
+
+                taskNodes[index].handleDependencies = handleDependencies;
+            }
+
+            handles.put(entry.getPath(), taskNodes[index]);
+        }
+
+        registerAll(Arrays.asList(taskNodes));
+
+        return Collections.unmodifiableMap(handles);
+    }
+
+    /**
+     * Registers a child task of a running task, the parent task only counts as loaded once all of its children have been
+     * loaded. Used through {@link TaskContext#spawn(LoadingTask)}.
+     *
+     * @param parent      the node of the running parent task.
+     * @param loadingTask the child task.
+     * @return a handle of the child task.
+     * @throws LoadingCancelledException if the batch of the parent task has been cancelled.
+     */
+    TaskHandle spawn(final TaskNode parent, final LoadingTask loadingTask) {
+        final TaskNode taskNode = createTaskNode(loadingTask, TaskMetadata.of(loadingTask).getPriority());
+        taskNode.parent = parent;
+
+        return register(taskNode);
+    }
+
+    private TaskNode createTaskNode(final LoadingTask loadingTask, final int priority) {
+        return createTaskNode(loadingTask, priority, registeredTasks.getAndIncrement());
+    }
+
+    private TaskNode createTaskNode(final LoadingTask loadingTask, final int priority, final long sequence) {
+        final TaskMetadata taskMetadata = TaskMetadata.of(loadingTask);
+
+        // Without a declared cost use what we have learned about the task class from earlier loads.
+        final double cost = taskMetadata.isCostDeclared() ? taskMetadata.getCost() : loadingProfile.getEstimatedCost(loadingTask.getClass(), taskMetadata.getCost());
+
+        return new TaskNode(loadingTask, priority, cost, sequence);
+    }
+
+    private void registerAll(final List<TaskNode> taskNodes) {
+        if (taskNodes.isEmpty()) {
+            return;
+        }
+
+        double cost = 0.0;
+
+        for (final TaskNode taskNode : taskNodes) {
+            cost += taskNode.getCost();
+        }
+
+        synchronized (loadingTasks) {
+            final Batch batch = this.batch;
+
+            // Merging first keeps the batch from completing before the tasks have been scheduled.
+            if (batch == null || !batch.merge(taskNodes.size(), cost)) {
+                loadingTasks.addAll(taskNodes);
+                return;
+            }
+
+            for (final TaskNode taskNode : taskNodes) {
+                taskNode.batch = batch;
+            }
+
+            try {
+                // Validated like at start(), a task which can never be loaded would keep the running batch open forever.
+                taskGraph.schedule(taskNodes, true);
+            } catch (IllegalStateException e) {
+                withdraw(batch, taskNodes.size(), cost);
+                throw e;
+            }
+        }
+
+        startLoaderThreads();
+    }
+
+    private TaskHandle register(final TaskNode taskNode) {
+        synchronized (loadingTasks) {
+            final Batch batch = this.batch;
+
+            // Merging first keeps the batch from completing before the task has been scheduled.
+            if (batch == null || !batch.merge(1, taskNode.getCost())) {
+                // The parent of a child task is running, so the batch can only have ended by being cancelled.
+                if (taskNode.parent != null) {
+                    throw new LoadingCancelledException("Can't spawn " + taskNode.getTaskClass().getSimpleName() + ", the batch of its parent task has been cancelled");
+                }
+
+                loadingTasks.add(taskNode);
+                return taskNode;
+            }
+
+            taskNode.batch = batch;
+
+            try {
+                // Validated like at start(), a task which can never be loaded would keep the running batch open forever.
+                taskGraph.schedule(Collections.singletonList(taskNode), true);
+            } catch (IllegalStateException | LoadingCancelledException e) {
+                withdraw(batch, 1, taskNode.getCost());
+                throw e;
+            }
+        }
+
+        startLoaderThreads();
+
+        return taskNode;
+    }
+
+    /**
+     * Checks if all provided tasks have been loaded. This is used for determining task dependency and is a constant time
+     * lookup per dependency, no matter how many tasks have been loaded. In order to use this
+     * in a meaningful way a {@link com.kendanware.jme3.taskloader.LoadingTask} need to be annotated with {@link com.kendanware.jme3.taskloader.annotation.DependsOn}.
+     *
+     * @param dependencies an array of string identifiers for dependencies to check against. These are case sensitive.
+     * @return true if all the provided dependencies have been loaded, otherwise false.
+     * @see com.kendanware.jme3.taskloader.annotation.DependsOn
+     */
+    public boolean hasBeenLoaded(final Class<? extends LoadingTask>... dependencies) {
+        return taskGraph.hasBeenLoaded(dependencies);
+    }
+
+    /**
+     * Checks if every instance of the provided task classes which has been registered for loading has been loaded, unlike
+     * {@link #hasBeenLoaded(Class[])} which is true as soon as any instance has been loaded.
+     *
+     * @param loadingTaskClasses the task classes to check.
+     * @return true if all instances of the provided classes have been loaded, otherwise false.
+     * @see com.kendanware.jme3.taskloader.annotation.DependsOn#allInstances()
+     */
+    public boolean haveAllInstancesBeenLoaded(final Class<? extends LoadingTask>... loadingTaskClasses) {
+        return taskGraph.haveAllInstancesBeenLoaded(loadingTaskClasses);
+    }
+
+    /**
+     * Takes the next task which is ready to be loaded and returns it. This is mainly used for {@link com.kendanware.jme3.taskloader.LoaderThread}
+     * to be able to poll for new tasks but can easily be used for implementing your own loading tasks.
+     * <p>
+     * Only tasks whose dependencies have all been loaded are returned. If tasks are still outstanding but none of them
+     * are ready this call blocks until one becomes ready or everything has been loaded.
+     * </p>
+     *
+     * @return the next task to be loaded or null if there are no more tasks.
+     */
+    public LoadingTask getNextTask() {
+        final long idleSince = System.nanoTime();
+        final TaskNode taskNode = taskGraph.takeNode();
+
+        if (taskNode == null) {
+            metrics.workerIdle(System.nanoTime() - idleSince);
+            return null;
+        }
+
+        TaskContext.enter(this, taskNode);
+
+        if (adaptiveThreadCount != null) {
+            taskNode.startedCpuTime = AdaptiveThreadCount.currentThreadCpuTime();
+        }
+
+        final long timeoutNanos = TaskMetadata.of(taskNode.getLoadingTask()).getTimeoutNanos();
+
+        if (timeoutNanos > 0 || taskTimeoutNanos > 0) {
+            taskNode.timeout = Watchdog.EXECUTOR.schedule(() -> cancel(taskGraph.timeOut(taskNode)), timeoutNanos > 0 ? timeoutNanos : taskTimeoutNanos, TimeUnit.NANOSECONDS);
+        }
+
+        final long queueWaitNanos = taskNode.startedAt - taskNode.readyAt;
+        metrics.taskStarted(Math.max(0, taskNode.startedAt - idleSince), queueWaitNanos);
+
+        for (final LoadingListener loadingListener : loadingListeners) {
+            loadingListener.taskStarted(taskNode.getLoadingTask(), taskNode.threadId, queueWaitNanos);
+        }
+
+        return taskNode.getLoadingTask();
+    }
+
+    /**
+     * Tell the loader to start loading assets that have been registered using {@link #registerForLoading(LoadingTask)}.
+     * <p>
+     * The dependency graph of all registered tasks is built once here, only tasks without outstanding dependencies are
+     * queued up and the rest are released as the tasks they depend on complete.
+     * </p>
+     * <p>
+     * If the previous batch has completed this starts a new batch, progress starts over from 0.0 and the callback is told
+     * about completion again once the new batch is done. If a batch is still loading the newly registered tasks are merged
+     * into it, loader threads which are already running simply pick them up. There is no queue of batches waiting for the
+     * running one to drain: the merged tasks add to the total cost of the running batch, so its progress drops back to the
+     * share of the combined cost which has been loaded, and completion is reported once for all of its tasks.
+     * </p>
+     * <p>
+     * If this is called without any tasks having been registered a warning will be logged and, unless a batch is still
+     * loading, loading will immediately be set to complete.
+     * </p>
+     *
+     * <p>
+     * A batch which is being preloaded, see {@link #preload()}, is promoted instead. From here on it is loaded using all
+     * loader threads and reports its progress, render thread stages which have been held back are executed and if the
+     * preloaded tasks have all been loaded already the callback is told about completion straight away.
+     * </p>
+     *
+     * @throws IllegalStateException if a task depends on a task which has not been registered or if the dependencies
+     *                               form a cycle which can never be fulfilled.
+     */
+    public void start() {
+        start(false);
+    }
+
+    /**
+     * Starts loading the registered tasks in the background, e.g. the next level while the player is still in a hub,
+     * so that loading it later is close to instant. A preloaded batch is loaded by a few loader threads, see
+     * {@link #setPreloadThreads(int)}, it can be paused while the game needs the processors and it doesn't report
+     * progress. Tasks publish their results as usual, but the render thread stages of {@link StagedLoadingTask}s are
+     * held back so nothing is attached to the scene before the content is actually needed.
+     * <p>
+     * Calling {@link #start()} promotes the preloaded batch, together with any tasks registered in the meantime. If a
+     * batch is loading already the tasks are merged into it like they are by {@link #start()}. Call {@link #cancel()}
+     * if the player picks other content.
+     * </p>
+     *
+     * @throws IllegalStateException if a task depends on a task which has not been registered or if the dependencies
+     *                               form a cycle which can never be fulfilled.
+     */
+    public void preload() {
+        start(true);
+    }
+
+    private void start(final boolean preload) {
+        final List<StagedLoadingTask> promotedStages = new ArrayList<>();
+        boolean promoted = false;
+        boolean preloaded = false;
+        Batch batch;
+
+        synchronized (loadingTasks) {
+            batch = this.batch;
+
+            if (!preload && batch != null && batch.isPreloading() && !batch.isCancelled()) {
+                promoted = true;
+                preloaded = batch.promote();
+                preloadingPaused = false;
+                promotedStages.addAll(heldStages);
+                heldStages.clear();
+                LOGGER.debug("Promoting preloaded batch {}", batch.getNumber());
+            }
+
+            if (loadingTasks.isEmpty()) {
+                if (!promoted) {
+                    LOGGER.warn("Asked to load assets but none have been registered for loading, have you called registerForLoading() with a task?");
+
+                    if (!isBatchRunning()) {
+                        this.batch = new Batch(batches, 0, 0.0, false);
+                    }
+
+                    return;
+                }
+            } else {
+                final List<TaskNode> tasks = new ArrayList<>(loadingTasks);
+                double cost = 0.0;
+
+                for (final TaskNode taskNode : tasks) {
+                    cost += taskNode.getCost();
+                }
+
+                // Merging first keeps the running batch from completing before the tasks have been scheduled.
+                final boolean merged = batch != null && batch.merge(tasks.size(), cost);
+
+                if (!merged) {
+                    batch = new Batch(batches + 1, tasks.size(), cost, preload);
+                }
+
+                for (final TaskNode taskNode : tasks) {
+                    taskNode.batch = batch;
+                }
+
+                try {
+                    taskGraph.schedule(tasks, true);
+                } catch (IllegalStateException e) {
+                    if (merged) {
+                        withdraw(batch, tasks.size(), cost);
+                    }
+
+                    throw e;
+                }
+
+                loadingTasks.clear();
+
+                if (merged) {
+                    LOGGER.debug("Merging {} tasks into the running batch", tasks.size());
+                } else {
+                    // A preloaded batch which has completed is replaced by the new batch, whose completion is reported instead.
+                    preloaded = false;
+                    batches++;
+                    this.batch = batch;
+
+                    if (preload) {
+                        // A pause only applies to the batch it was made for.
+                        preloadingPaused = false;
+                    }
+                    LOGGER.debug("{} batch {} with {} tasks", preload ? "Preloading" : "Starting", batches, tasks.size());
+                }
+            }
+        }
+
+        if (preloaded) {
+            // Everything was loaded while preloading, the completion which was held back is reported now.
+            reportCompletion(batch, "");
+        }
+
+        if (!preload) {
+            attachAppState();
+        }
+
+        for (final StagedLoadingTask stagedTask : promotedStages) {
+            stage(stagedTask, null);
+        }
+
+        startLoaderThreads();
+    }
+
+    /**
+     * Cancels the running batch, e.g. when the player backs out of a level while it is loading. Tasks which haven't
+     * started loading yet are dropped together with any tasks registered for the next batch, and running tasks are
+     * cancelled and their loader threads interrupted, see {@link TaskContext}. Cancelled tasks don't count as loaded and
+     * the progress callback isn't called for them.
+     * <p>
+     * A new batch can be started straight away, loader threads pick up its tasks as soon as they have stopped loading
+     * their cancelled task.
+     * </p>
+     */
+    public void cancel() {
+        final List<CompletableFuture<?>> futures = new ArrayList<>();
+        final List<StagedLoadingTask> droppedStages = new ArrayList<>();
+
+        synchronized (loadingTasks) {
+            loadingTasks.clear();
+            final Batch batch = this.batch;
+
+            // Cancelling the batch first means no task completing from here on can complete the batch.
+            if (batch == null || !batch.cancel()) {
+                return;
+            }
+
+            final int drainedTasks = taskGraph.cancel(futures);
+            droppedStages.addAll(heldStages);
+            heldStages.clear();
+            LOGGER.debug("Cancelled batch {}, dropped {} tasks which hadn't been started", batch.getNumber(), drainedTasks);
+        }
+
+        for (final CompletableFuture<?> future : futures) {
+            cancel(future);
+        }
+
+        // Render thread stages which are already queued or held back by a preloaded batch are dropped as well.
+        droppedStages.addAll(appState.drainStagedTasks());
+
+        for (final StagedLoadingTask stagedTask : droppedStages) {
+            complete(stagedTask);
+        }
+    }
+
+    /**
+     * Sets a timeout for every task which doesn't declare one using {@link com.kendanware.jme3.taskloader.annotation.Timeout},
+     * a timeout of 0 means tasks can take as long as they need, which is the default. Like a declared timeout it only
+     * covers the part of a task running on a loader thread or in the future of an {@link AsyncLoadingTask}, not the
+     * render thread stage of a {@link StagedLoadingTask}.
+     *
+     * @param timeout  the maximum time a task may take to load.
+     * @param timeUnit the unit of the timeout.
+     */
+    public void setTaskTimeout(final long timeout, final TimeUnit timeUnit) {
+        if (timeout < 0) {
+            throw new IllegalArgumentException("timeout can't be negative");
+        }
+
+        this.taskTimeoutNanos = timeUnit.toNanos(timeout);
+    }
+
+    /**
+     * Lets the number of loader threads adapt to the tasks being loaded instead of using the number of threads the
+     * LoadingManager was constructed with, reserving one processor for the render thread. See
+     * {@link #setAdaptiveThreads(int, int, int)}.
+     *
+     * @param minThreads the least number of loader threads to run.
+     * @param maxThreads the most number of loader threads to run.
+     */
+    public void setAdaptiveThreads(final int minThreads, final int maxThreads) {
+        setAdaptiveThreads(minThreads, maxThreads, 1);
+    }
+
+    /**
+     * Lets the number of loader threads adapt to the tasks being loaded instead of using the number of threads the
+     * LoadingManager was constructed with. Loading starts with one thread per processor which isn't reserved, while
+     * loading the time each task spends blocked, e.g. reading files, is measured against the CPU time it uses and threads
+     * are added when tasks are mostly blocked and removed again once the processors are saturated. Can be called while a
+     * batch is loading.
+     * <p>
+     * This needs a JVM which can measure the CPU time of threads, otherwise a warning is logged and the number of threads
+     * stays as it is. With an executor other than the default one make sure it can run the maximum number of threads.
+     * </p>
+     *
+     * @param minThreads         the least number of loader threads to run.
+     * @param maxThreads         the most number of loader threads to run.
+     * @param reservedProcessors the number of processors to leave for the render thread and the rest of the game.
+     */
+    public void setAdaptiveThreads(final int minThreads, final int maxThreads, final int reservedProcessors) {
+        if (minThreads < 1) {
+            throw new IllegalArgumentException("minThreads must be at least 1");
+        }
+
+        if (maxThreads < minThreads) {
+            throw new IllegalArgumentException("maxThreads can't be less than minThreads");
+        }
+
+        if (reservedProcessors < 0) {
+            throw new IllegalArgumentException("reservedProcessors can't be negative");
+        }
+
+        if (!AdaptiveThreadCount.isSupported()) {
+            LOGGER.warn("Thread CPU time can't be measured, keeping {} loader threads", threads);
+            return;
+        }
+
+        final AdaptiveThreadCount adaptiveThreadCount = new AdaptiveThreadCount(minThreads, maxThreads, reservedProcessors);
+        this.adaptiveThreadCount = adaptiveThreadCount;
+        setThreads(adaptiveThreadCount.getInitialThreads());
+    }
+
+    /**
+     * Returns the number of loader threads the LoadingManager runs while there are tasks to load, which changes while
+     * loading if {@link #setAdaptiveThreads(int, int, int)} is used.
+     *
+     * @return the number of loader threads.
+     */
+    public int getNumberOfThreads() {
+        return threads;
+    }
+
+    /**
+     * Sets how many bytes of memory the tasks loading at the same time may need according to their
+     * {@link com.kendanware.jme3.taskloader.annotation.MemoryCost}, a budget of 0 means there is no limit, which is the
+     * default. A task which doesn't fit into the budget waits for running tasks to complete even if loader threads are
+     * idle, tasks without a memory cost are loaded in the meantime. Can be changed while a batch is loading.
+     * <p>
+     * The budget is compared against the declared costs rather than the measured heap usage, which includes garbage
+     * that hasn't been collected yet. Something like half of {@link Runtime#maxMemory()} is a good start.
+     * </p>
+     *
+     * @param memoryBudget the memory budget in bytes.
+     */
+    public void setMemoryBudget(final long memoryBudget) {
+        if (memoryBudget < 0) {
+            throw new IllegalArgumentException("memoryBudget can't be negative");
+        }
+
+        taskGraph.setMemoryBudget(memoryBudget);
+    }
+
+    /**
+     * Sets how many loader threads load a batch started through {@link #preload()}, the default is 1. Keep this below
+     * the number of processors so preloading doesn't compete with the render thread. Can be changed while preloading.
+     *
+     * @param preloadThreads the number of loader threads to preload with.
+     */
+    public void setPreloadThreads(final int preloadThreads) {
+        if (preloadThreads < 1) {
+            throw new IllegalArgumentException("preloadThreads must be at least 1");
+        }
+
+        this.preloadThreads = preloadThreads;
+
+        if (taskGraph.getOutstandingTasks() > 0) {
+            startLoaderThreads();
+        }
+    }
+
+    /**
+     * Pauses a batch started through {@link #preload()}, e.g. while the game needs every processor. Tasks which are
+     * loading finish, after that the loader threads stop until {@link #resumePreloading()} or {@link #start()} is
+     * called. The pause ends with the batch, the next call to {@link #preload()} starts preloading again.
+     */
+    public void pausePreloading() {
+        preloadingPaused = true;
+        LOGGER.debug("Paused preloading");
+    }
+
+    /**
+     * Resumes preloading after {@link #pausePreloading()}.
+     */
+    public void resumePreloading() {
+        preloadingPaused = false;
+        LOGGER.debug("Resumed preloading");
+
+        if (taskGraph.getOutstandingTasks() > 0) {
+            startLoaderThreads();
+        }
+    }
+
+    /**
+     * Returns true if the current batch has been started through {@link #preload()} and hasn't been promoted by
+     * {@link #start()} yet.
+     *
+     * @return true if the current batch is being preloaded, otherwise false.
+     */
+    public boolean isPreloading() {
+        final Batch batch = this.batch;
+
+        return batch != null && batch.isPreloading() && !batch.isCancelled();
+    }
+
+    /**
+     * Sets how tasks which are ready to be loaded and have the same priority are ordered, the default is
+     * {@link TaskOrdering#REGISTRATION_ORDER}. Takes effect for tasks scheduled after this call, so it should be set
+     * before calling {@link #start()}.
+     *
+     * @param taskOrdering the ordering to use.
+     */
+    public void setTaskOrdering(final TaskOrdering taskOrdering) {
+        if (taskOrdering == null) {
+            throw new IllegalArgumentException("taskOrdering is required");
+        }
+
+        taskGraph.setTaskOrdering(taskOrdering);
+    }
+
+    /**
+     * Sets how progress is delivered to the {@link ProgressCallback}, the default is {@link ProgressDelivery#IMMEDIATE}.
+     * With {@link ProgressDelivery#RENDER_THREAD} the LoadingManager attaches an app state to the application while
+     * loading which delivers the latest progress at most once per frame. Must be set before calling {@link #start()}.
+     *
+     * @param progressDelivery the delivery mode to use.
+     */
+    public void setProgressDelivery(final ProgressDelivery progressDelivery) {
+        if (progressDelivery == null) {
+            throw new IllegalArgumentException("progressDelivery is required");
+        }
+
+        this.progressDelivery = progressDelivery;
+    }
+
+    /**
+     * Sets how much time per frame may be spent on executing the render thread stages of {@link StagedLoadingTask}s, the
+     * default is 4 milliseconds. At least one stage is executed per frame no matter how small the budget is.
+     *
+     * @param budget   the time budget per frame.
+     * @param timeUnit the unit of the budget.
+     */
+    public void setRenderThreadBudget(final long budget, final TimeUnit timeUnit) {
+        if (budget < 0) {
+            throw new IllegalArgumentException("budget can't be negative");
+        }
+
+        appState.setRenderThreadBudget(timeUnit.toNanos(budget));
+    }
+
+    /**
+     * Adds a listener which is told when tasks start and finish loading.
+     *
+     * @param loadingListener the listener to add.
+     */
+    public void addLoadingListener(final LoadingListener loadingListener) {
+        if (loadingListener == null) {
+            throw new IllegalArgumentException("loadingListener is required");
+        }
+
+        synchronized (loadingTasks) {
+            final LoadingListener[] listeners = Arrays.copyOf(loadingListeners, loadingListeners.length + 1);
+            listeners[listeners.length - 1] = loadingListener;
+            loadingListeners = listeners;
+        }
+    }
+
+    /**
+     * Removes a listener added with {@link #addLoadingListener(LoadingListener)}.
+     *
+     * @param loadingListener the listener to remove.
+     */
+    public void removeLoadingListener(final LoadingListener loadingListener) {
+        synchronized (loadingTasks) {
+            final List<LoadingListener> listeners = new ArrayList<>(Arrays.asList(loadingListeners));
+
+            if (listeners.remove(loadingListener)) {
+                loadingListeners = listeners.toArray(NO_LISTENERS);
+            }
+        }
+    }
+
+    /**
+     * Returns the live metrics of this LoadingManager, e.g. queue depth, queue wait times and how busy the loader
+     * threads are.
+     *
+     * @return the metrics.
+     */
+    public LoadingMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the profile which records the load times of every task loaded by this LoadingManager.
+     *
+     * @return the loading profile.
+     */
+    public LoadingProfile getLoadingProfile() {
+        return loadingProfile;
+    }
+
+    /**
+     * Replaces the profile used for recording load times and estimating the cost of tasks. Costs are estimated when a
+     * task is registered, so this should be set before registering tasks.
+     *
+     * @param loadingProfile the profile to use.
+     */
+    public void setLoadingProfile(final LoadingProfile loadingProfile) {
+        if (loadingProfile == null) {
+            throw new IllegalArgumentException("loadingProfile is required");
+        }
+
+        this.loadingProfile = loadingProfile;
+    }
+
+    /**
+     * Returns the cache which tasks use to load assets through the {@link com.jme3.asset.AssetManager} of the application
+     * without loading the same asset several times when tasks on different loader threads request it at the same time.
+     * Unless another cache has been set the cache is created on first use and keeps up to
+     * {@link AssetCache#DEFAULT_MAXIMUM_SIZE} assets.
+     *
+     * @return the asset cache.
+     * @see TaskContext#getAssetCache()
+     */
+    public AssetCache getAssetCache() {
+        AssetCache assetCache = this.assetCache;
+
+        if (assetCache == null) {
+            synchronized (loadingTasks) {
+                assetCache = this.assetCache;
+
+                // The asset manager only exists once the application has been started, so the cache can't be created up front.
+                if (assetCache == null) {
+                    assetCache = new AssetCache(application.getAssetManager(), AssetCache.DEFAULT_MAXIMUM_SIZE);
+                    this.assetCache = assetCache;
+                }
+            }
+        }
+
+        return assetCache;
     }
 
     /**
-     * Registers a task for loading, it will be added to a queue and consumed by a {@link com.kendanware.jme3.taskloader.LoaderThread}.
+     * Replaces the asset cache, e.g. with one keeping more assets.
      *
-     * @param loadingTask the task to register for loading. Hint: Can be a lambda as {@link com.kendanware.jme3.taskloader.LoadingTask} is a functional interface.
+     * @param assetCache the cache to use.
      */
-    public void registerForLoading(final LoadingTask loadingTask) {
-        loadingTasks.add(loadingTask);
+    public void setAssetCache(final AssetCache assetCache) {
+        if (assetCache == null) {
+            throw new IllegalArgumentException("assetCache is required");
+        }
+
+        this.assetCache = assetCache;
     }
 
     /**
-     * Checks if all provided tasks have been loaded. This is used for determining task dependency. In order to use this
-     * in a meaningful way a {@link com.kendanware.jme3.taskloader.LoadingTask} need to be annotated with {@link com.kendanware.jme3.taskloader.annotation.DependsOn}.
+     * Persists the loading profile to a file between runs. If the file exists the profile is loaded from it straight away
+     * and after every completed batch the recorded profile is written back to it on a background thread. Call this before registering tasks so
+     * their costs can be estimated from the loaded profile. Failing to read or write the file is logged but doesn't affect
+     * loading.
      *
-     * @param dependencies an array of string identifiers for dependencies to check against. These are case sensitive.
-     * @return true if all the provided dependencies have been loaded, otherwise false.
-     * @see com.kendanware.jme3.taskloader.annotation.DependsOn
+     * @param profilePath the file to load the profile from and save it to.
      */
-    public boolean hasBeenLoaded(final Class<? extends LoadingTask>... dependencies) {
-        for (final Class<? extends LoadingTask> loadingTaskClass : dependencies) {
-            if (!loadedTasks.contains(loadingTaskClass)) {
-                return false;
-            }
+    public void setProfilePath(final Path profilePath) {
+        if (profilePath == null) {
+            throw new IllegalArgumentException("profilePath is required");
         }
 
-        return true;
+        this.profilePath = profilePath;
+
+        if (Files.exists(profilePath)) {
+            try {
+                loadingProfile = LoadingProfile.load(profilePath);
+                LOGGER.debug("Loaded loading profile from {}", profilePath);
+            } catch (IOException e) {
+                LOGGER.warn("Unable to load loading profile from {}", profilePath, e);
+            }
+        }
     }
 
     /**
-     * Takes the next task to be loaded out of the queue and returns it. This is mainly used for {@link com.kendanware.jme3.taskloader.LoadingTask}
-     * to be able to poll for new tasks but can easily be used for implementing your own loading tasks.
+     * Publishes a result of a task for the tasks depending on it. A task which is loaded after the publishing task, i.e.
+     * one which declares it with {@link com.kendanware.jme3.taskloader.annotation.DependsOn}, is guaranteed to see the
+     * result. Tasks usually publish through {@link TaskContext#publish(ResultKey, Object)}, this method is for the render
+     * thread stage of a {@link StagedLoadingTask} and the future of an {@link AsyncLoadingTask}. Results are kept until
+     * {@link #reset()} is called, publishing a result again replaces it.
      *
-     * @return the next task in the queue to be loaded or null if there are no more tasks.
+     * @param resultKey the key of the result.
+     * @param result    the result.
+     * @param <V>       the type of the result.
      */
-    public LoadingTask getNextTask() {
-        return loadingTasks.poll();
+    public <V> void publishResult(final ResultKey<V> resultKey, final V result) {
+        if (resultKey == null) {
+            throw new IllegalArgumentException("resultKey is required");
+        }
+
+        if (result == null) {
+            throw new IllegalArgumentException("result is required");
+        }
+
+        results.put(resultKey, resultKey.getType().cast(result));
     }
 
     /**
-     * Tell the loader to start loading assets that have been registered using {@link #registerForLoading(LoadingTask)}.
-     * <p>
-     * If this is called multiple times subsequent calls will be ignored and a warning logged.
-     * </p>
-     * <p>
-     * If this is called without any tasks having been registered a warning will be logged and loading will immediately be
-     * set to complete.
-     * </p>
+     * Returns a result published using {@link #publishResult(ResultKey, Object)}.
+     *
+     * @param resultKey the key of the result.
+     * @param <V>       the type of the result.
+     * @return the result.
+     * @throws IllegalStateException if the result hasn't been published, usually because the task depending on it
+     *                               doesn't declare the publishing task with {@link com.kendanware.jme3.taskloader.annotation.DependsOn}.
      */
-    public void start() {
-        if (loadingComplete) {
-            LOGGER.warn("Asked to load assets but loading has already been done, are you calling start() twice?");
-            return;
-        }
+    public <V> V getResult(final ResultKey<V> resultKey) {
+        final Object result = results.get(resultKey);
 
-        if (loadingTasks.isEmpty()) {
-            LOGGER.warn("Asked to load assets but none have been registered for loading, have you called registerForLoading() with a task?");
-            loadingComplete = true;
-            progress = 1.0f;
-            return;
+        if (result == null) {
+            throw new IllegalStateException("No result has been published for " + resultKey);
         }
 
-        loadingStarted = true;
-        loadingStartedAt = System.nanoTime();
+        return resultKey.getType().cast(result);
+    }
+
+    /**
+     * Checks if a result has been published using {@link #publishResult(ResultKey, Object)}.
+     *
+     * @param resultKey the key of the result.
+     * @return true if the result has been published, otherwise false.
+     */
+    public boolean hasResult(final ResultKey<?> resultKey) {
+        return results.containsKey(resultKey);
+    }
 
-        tasksToLoad = loadingTasks.size();
-        progressPerAsset = 1.0f / tasksToLoad;
+    /**
+     * Forgets which task classes have been loaded in earlier batches, after this tasks in the next batch will wait for
+     * their {@link com.kendanware.jme3.taskloader.annotation.DependsOn} dependencies to be loaded again. Published
+     * results are dropped and the asset cache is emptied as well. Use this when the content loaded by earlier batches has
+     * been unloaded.
+     *
+     * @throws IllegalStateException if a batch is still loading.
+     */
+    public void reset() {
+        synchronized (loadingTasks) {
+            if (isBatchRunning()) {
+                throw new IllegalStateException("Can't reset the LoadingManager while a batch is loading");
+            }
 
-        // Fire up threads to load stuff
-        for (int i = 0; i < threads; i++) {
-            final LoaderThread loaderThread = new LoaderThread(this, this);
-            LOGGER.debug("Created LoaderThread {} of {}", i + 1, threads);
+            taskGraph.reset();
+            results.clear();
 
-            final Thread thread = new Thread(loaderThread, "LoaderThread " + i);
-            thread.start();
+            if (assetCache != null) {
+                assetCache.invalidateAll();
+            }
         }
     }
 
@@ -150,12 +1105,42 @@ public class LoadingManager<T extends Application> implements Consumer<LoadingTa
     }
 
     /**
-     * Returns the current progress as a value between 0.0 and 1.0 where 1.0 is max progress.
+     * Returns the current progress as a value between 0.0 and 1.0 where 1.0 is max progress. Each completed task moves
+     * the progress by its share of the total cost of the batch.
      *
      * @return a value between 0.0 and 1.0
      */
     public float getProgress() {
-        return progress;
+        final Batch batch = this.batch;
+
+        return batch != null ? batch.getProgress() : 0.0f;
+    }
+
+    /**
+     * Estimates how long it will take until the current batch has been loaded based on the cost loaded so far and the
+     * time it took to load it.
+     *
+     * @param timeUnit the unit to return the estimate in.
+     * @return the estimated time remaining, 0 if loading has completed or -1 if nothing has been loaded yet so there is
+     * nothing to base an estimate on.
+     */
+    public long getEstimatedTimeRemaining(final TimeUnit timeUnit) {
+        final Batch batch = this.batch;
+
+        if (batch != null && batch.isCompleted()) {
+            return 0;
+        }
+
+        final double loadedCost = batch != null ? batch.getLoadedCost() : 0.0;
+
+        if (loadedCost <= 0.0) {
+            return -1;
+        }
+
+        final double elapsed = System.nanoTime() - batch.getStartedAt();
+        final double remaining = elapsed / loadedCost * Math.max(0.0, batch.getCostToLoad() - loadedCost);
+
+        return timeUnit.convert((long) remaining, TimeUnit.NANOSECONDS);
     }
 
     /**
@@ -164,7 +1149,7 @@ public class LoadingManager<T extends Application> implements Consumer<LoadingTa
      * @return a value between 0.0 and 100.0
      */
     public float getProgressPercentage() {
-        return progress * 100;
+        return getProgress() * 100;
     }
 
     /**
@@ -174,7 +1159,9 @@ public class LoadingManager<T extends Application> implements Consumer<LoadingTa
      * @return time in nano seconds since start() was called.
      */
     public long getLoadingStartedAt() {
-        return loadingStartedAt;
+        final Batch batch = this.batch;
+
+        return batch != null ? batch.getStartedAt() : 0;
     }
 
     /**
@@ -183,39 +1170,481 @@ public class LoadingManager<T extends Application> implements Consumer<LoadingTa
      * @return true if loading has started, otherwise false.
      */
     public boolean isLoadingStarted() {
-        return loadingStarted;
+        return batch != null;
     }
 
     /**
-     * Returns true if loading has completed. This can only be true if {@link #isLoadingStarted()} is also true.
+     * Returns true if loading of the current batch has completed. This can only be true if {@link #isLoadingStarted()} is
+     * also true.
      *
      * @return true if loading has completed, otherwise false.
      */
     public boolean isLoadingComplete() {
-        return loadingComplete;
+        final Batch batch = this.batch;
+
+        return batch != null && batch.isCompleted();
+    }
+
+    /**
+     * Returns true if the current batch has been cancelled using {@link #cancel()}.
+     *
+     * @return true if loading has been cancelled, otherwise false.
+     */
+    public boolean isLoadingCancelled() {
+        final Batch batch = this.batch;
+
+        return batch != null && batch.isCancelled();
     }
 
+    /**
+     * Returns the number of batches that have been started using {@link #start()}.
+     *
+     * @return the number of started batches.
+     */
+    public int getBatchCount() {
+        return batches;
+    }
+
+    /**
+     * Called by a {@link LoaderThread} when there are no more tasks for it to load. Gives up the loader thread's slot
+     * unless tasks have been scheduled in the meantime and the slot could be taken back.
+     *
+     * @return true if the loader thread should keep loading, false if it should stop.
+     */
+    boolean releaseLoaderThread() {
+        activeLoaderThreads.decrementAndGet();
+
+        // A new batch might have been started after we ran out of tasks but before we gave up our slot, in which case
+        // start() could have seen us as still running and not started a loader thread for it.
+        if (taskGraph.getOutstandingTasks() > 0 && claimLoaderThread()) {
+            return true;
+        }
+
+        metrics.workerStopped();
+
+        return false;
+    }
+
+    /**
+     * Called by a {@link LoaderThread} before taking another task. Loader threads stop once there are more of them than
+     * the adaptive thread count asks for.
+     *
+     * @return true if the calling loader thread should stop.
+     */
+    boolean hasSurplusLoaderThreads() {
+        return activeLoaderThreads.get() > getLoaderThreadLimit();
+    }
+
+    /**
+     * Called by a {@link LoaderThread} once a task has been loaded. A {@link StagedLoadingTask} is handed over to the
+     * render thread for its second stage, every other task is marked as loaded straight away.
+     *
+     * @param loadingTask the task which has been loaded.
+     */
     @Override
     public void accept(final LoadingTask loadingTask) {
-        // Add this loading task to the list of loaded tasks.
-        loadedTasks.add(loadingTask.getClass());
+        if (loadingTask instanceof StagedLoadingTask) {
+            final TaskNode taskNode = taskGraph.handOver(loadingTask, null);
+
+            if (taskNode != null && !taskNode.drained) {
+                leaveLoaderThread();
+                workerBusy(taskNode);
+                stage((StagedLoadingTask) loadingTask, taskNode);
+                return;
+            }
+        }
+
+        complete(loadingTask, null, true);
+    }
+
+    /**
+     * Called by a {@link LoaderThread} once {@link AsyncLoadingTask#loadAsync(Application)} has returned. The loader
+     * thread moves on to the next task while this task completes once the returned future completes.
+     *
+     * @param asyncTask the task which has started loading.
+     * @param future    the future returned by the task.
+     */
+    void acceptAsync(final AsyncLoadingTask asyncTask, final CompletableFuture<?> future) {
+        final TaskNode taskNode = taskGraph.handOver(asyncTask, future);
+        leaveLoaderThread();
+
+        if (taskNode != null) {
+            workerBusy(taskNode);
+
+            if (taskNode.drained) {
+                cancel(future);
+            }
+        }
+
+        future.whenComplete((result, throwable) -> completeAsync(asyncTask, taskNode, throwable));
+    }
+
+    private void completeAsync(final AsyncLoadingTask asyncTask, final TaskNode taskNode, final Throwable throwable) {
+        final boolean cancelled = taskNode != null && taskNode.cancelled;
+
+        if (throwable != null && !cancelled) {
+            final Throwable cause = throwable instanceof CompletionException && throwable.getCause() != null ? throwable.getCause() : throwable;
+            LOGGER.error("Exception caught during asynchronous loading", cause);
+            application.handleError(cause.getLocalizedMessage(), cause);
+        }
+
+        if (asyncTask instanceof StagedLoadingTask && taskNode != null && !taskNode.drained) {
+            stage((StagedLoadingTask) asyncTask, taskNode);
+        } else {
+            complete(asyncTask, taskNode, false);
+        }
+    }
+
+    /**
+     * Marks a task as loaded, releasing any tasks waiting on it and reporting progress.
+     *
+     * @param loadingTask the task which has completed.
+     */
+    void complete(final LoadingTask loadingTask) {
+        complete(loadingTask, null, false);
+    }
+
+    private void complete(final LoadingTask loadingTask, final TaskNode runningNode, final boolean onLoaderThread) {
+        // Mark this loading task as loaded, releasing any tasks waiting on it.
+        final TaskNode taskNode = taskGraph.complete(loadingTask, runningNode);
         LOGGER.debug("Added task {} to list of loaded tasks", loadingTask.getClass().getSimpleName());
 
-        LOGGER.debug("Loaded tasks: {}, tasks to load: {}", loadedTasks.size(), tasksToLoad);
+        if (taskNode != null) {
+            stopTimeout(taskNode);
+
+            if (onLoaderThread) {
+                leaveLoaderThread();
+                workerBusy(taskNode);
+            }
+
+            if (taskNode.drained) {
+                notifyCompleted(loadingTask, taskNode, System.nanoTime());
+                LOGGER.debug("Cancelled task {} has stopped", loadingTask.getClass().getSimpleName());
+                return;
+            }
+
+            if (taskNode.deferred) {
+                LOGGER.debug("Task {} is waiting for its child tasks", loadingTask.getClass().getSimpleName());
+                return;
+            }
+        } else if (onLoaderThread) {
+            leaveLoaderThread();
+        }
+
+        reportCompleted(loadingTask, taskNode);
+
+        // Completing the last child of a task completes the task as well, and possibly its parent in turn.
+        for (TaskNode parent = taskNode != null ? taskNode.completedParent : null; parent != null; parent = parent.completedParent) {
+            reportCompleted(parent.getLoadingTask(), parent);
+        }
+    }
+
+    private void notifyCompleted(final LoadingTask loadingTask, final TaskNode taskNode, final long completedAt) {
+        metrics.taskCompleted();
+
+        for (final LoadingListener loadingListener : loadingListeners) {
+            loadingListener.taskCompleted(loadingTask, taskNode.threadId, taskNode.readyAt, taskNode.startedAt, completedAt);
+        }
+    }
+
+    private void reportCompleted(final LoadingTask loadingTask, final TaskNode taskNode) {
+        if (taskNode != null) {
+            final long completedAt = System.nanoTime();
+            notifyCompleted(loadingTask, taskNode, completedAt);
+            loadingProfile.record(taskNode.getTaskClass(), completedAt - taskNode.startedAt, taskNode.startedAt - taskNode.readyAt, taskNode.threadId);
+        }
+
+        // A task which wasn't handed out through getNextTask() counts towards the running batch, like it does in the graph.
+        final Batch batch = taskNode != null ? taskNode.batch : this.batch;
+
+        if (batch == null) {
+            deliverProgress(TaskMetadata.of(loadingTask).getDescription(), false, 0.0f);
+            return;
+        }
+
+        // Exactly one thread sees the batch complete, no lock is needed for that.
+        final boolean batchCompleted = batch.taskLoaded(taskNode != null ? taskNode.getCost() : 0.0);
+
+        if (batchCompleted) {
+            batchCompleted(batch);
+
+            if (batch.holdCompletion()) {
+                LOGGER.debug("Preloaded batch {} is waiting to be started", batch.getNumber());
+                return;
+            }
+
+            reportCompletion(batch, TaskMetadata.of(loadingTask).getDescription());
+            return;
+        }
+
+        // The batch may have been cancelled, or completed by another thread which reports it, since this task was counted.
+        // Progress of a preloading batch isn't reported at all.
+        if (!batch.isRunning() || batch.isPreloading() || !batch.reportProgress()) {
+            return;
+        }
+
+        try {
+            deliverProgress(TaskMetadata.of(loadingTask).getDescription(), false, batch.getProgress());
+        } finally {
+            // The batch completed while this thread was reporting its progress, the completion has been waiting for it.
+            if (batch.progressReported()) {
+                deliverProgress(batch.getCompletionMessage(), true, 1.0f);
+            }
+        }
+    }
+
+    /**
+     * Reports the completion of a batch unless loader threads are still reporting their progress, in which case the last
+     * of them reports it, see {@link Batch#reportCompletion(String)}.
+     *
+     * @param batch   the batch which has completed.
+     * @param message the message to report the completion with.
+     */
+    private void reportCompletion(final Batch batch, final String message) {
+        if (batch.reportCompletion(message)) {
+            deliverProgress(message, true, 1.0f);
+        }
+    }
+
+    /**
+     * Takes back tasks which were merged into a batch but couldn't be scheduled. Every other task of the batch might have
+     * been loaded while the merged tasks held it open, in which case the batch completes here.
+     *
+     * @param batch the batch the tasks were merged into.
+     * @param tasks the number of tasks to take back.
+     * @param cost  the total cost of the tasks.
+     */
+    private void withdraw(final Batch batch, final int tasks, final double cost) {
+        if (batch.withdraw(tasks, cost)) {
+            batchCompleted(batch);
+
+            if (!batch.holdCompletion()) {
+                reportCompletion(batch, "");
+            }
+        }
+    }
+
+    private void batchCompleted(final Batch batch) {
+        LOGGER.debug("Completed loading {} tasks of batch {} in {} ms using {} threads", batch.getLoadedTasks(), batch.getNumber(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - batch.getStartedAt()), threads);
+
+        if (profilePath != null) {
+            // Writing the file mustn't hold up reporting completion.
+            ProfileWriter.EXECUTOR.execute(this::saveLoadingProfile);
+        }
+    }
+
+    private void deliverProgress(final String message, final boolean completed, final float progress) {
+        if (progressDelivery == ProgressDelivery.RENDER_THREAD) {
+            appState.progress(message, completed, progress);
+        } else {
+            progressCallback.progress(message, completed, progress);
+        }
+    }
+
+    /**
+     * Returns true if a batch has been started and hasn't completed yet.
+     *
+     * @return true if loading is in progress, otherwise false.
+     */
+    boolean isLoadingInProgress() {
+        return isBatchRunning();
+    }
+
+    /**
+     * Cleans up after a task has stopped running on the calling loader thread.
+     */
+    private void leaveLoaderThread() {
+        TaskContext.exit();
+        // The graph no longer interrupts this thread for the task, clear any interrupt before calling back into the game.
+        Thread.interrupted();
+    }
+
+    /**
+     * Records the time a task spent on the calling loader thread, which is moving on to another task.
+     *
+     * @param taskNode the node of the task.
+     */
+    private void workerBusy(final TaskNode taskNode) {
+        final long busyNanos = System.nanoTime() - taskNode.startedAt;
+        metrics.workerBusy(busyNanos);
+
+        final AdaptiveThreadCount adaptiveThreadCount = this.adaptiveThreadCount;
+
+        if (adaptiveThreadCount != null && taskNode.startedCpuTime > 0) {
+            final long cpuNanos = AdaptiveThreadCount.currentThreadCpuTime() - taskNode.startedCpuTime;
+            final int threads = this.threads;
+            final int adaptedThreads = adaptiveThreadCount.record(busyNanos, cpuNanos, threads, taskGraph.getQueueDepth() > 0);
+
+            if (adaptedThreads != threads) {
+                LOGGER.debug("Changing the number of loader threads from {} to {}", threads, adaptedThreads);
+                setThreads(adaptedThreads);
+            }
+        }
+    }
+
+    private void setThreads(final int threads) {
+        this.threads = threads;
+
+        // Surplus loader threads stop by themselves once they are done with their current task.
+        if (taskGraph.getOutstandingTasks() > 0) {
+            startLoaderThreads();
+        }
+    }
+
+    /**
+     * Stops watching a task for its timeout and reports it if it took too long.
+     *
+     * @param taskNode the node of the task which has completed.
+     */
+    private void stopTimeout(final TaskNode taskNode) {
+        if (taskNode.timeout != null) {
+            taskNode.timeout.cancel(false);
+            taskNode.timeout = null;
+        }
+
+        if (taskNode.timedOut) {
+            final String message = "Loading task " + taskNode.getTaskClass().getSimpleName() + " timed out after " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - taskNode.startedAt) + " ms";
+            LOGGER.error(message);
+            application.handleError(message, new TimeoutException(message));
+        }
+    }
+
+    private void stage(final StagedLoadingTask stagedTask, final TaskNode taskNode) {
+        final Batch batch = taskNode != null ? taskNode.batch : null;
+
+        if (batch != null && batch.isPreloading()) {
+            synchronized (loadingTasks) {
+                // Checked again while holding the lock, start() promotes the batch and takes the held stages under it.
+                if (batch.isPreloading() && !batch.isCancelled()) {
+                    heldStages.add(stagedTask);
+                    LOGGER.debug("Holding back render thread stage of {} until the preloaded batch is started", stagedTask.getClass().getSimpleName());
+                    return;
+                }
+            }
+        }
+
+        appState.stage(stagedTask);
+    }
+
+    private void cancel(final CompletableFuture<?> future) {
+        if (future != null) {
+            future.cancel(false);
+        }
+    }
+
+    private void attachAppState() {
+        if (progressDelivery == ProgressDelivery.RENDER_THREAD) {
+            appState.attach();
+        }
+    }
+
+    private void saveLoadingProfile() {
+        final Path profilePath = this.profilePath;
+
+        try {
+            loadingProfile.save(profilePath);
+            LOGGER.debug("Saved loading profile to {}", profilePath);
+        } catch (IOException e) {
+            LOGGER.warn("Unable to save loading profile to {}", profilePath, e);
+        }
+    }
+
+    private boolean isBatchRunning() {
+        final Batch batch = this.batch;
+
+        return batch != null && batch.isRunning();
+    }
+
+    private int getLoaderThreadLimit() {
+        final Batch batch = this.batch;
+
+        if (batch != null && batch.isPreloading()) {
+            return preloadingPaused ? 0 : Math.min(preloadThreads, threads);
+        }
+
+        return threads;
+    }
+
+    private boolean claimLoaderThread() {
+        int active;
+
+        do {
+            active = activeLoaderThreads.get();
+
+            if (active >= getLoaderThreadLimit()) {
+                return false;
+            }
+        } while (!activeLoaderThreads.compareAndSet(active, active + 1));
+
+        return true;
+    }
+
+    private void startLoaderThreads() {
+        // Fire up threads to load stuff, loader threads still running from an earlier batch keep their slot.
+        while (claimLoaderThread()) {
+            final LoaderThread loaderThread = new LoaderThread(this, this);
+            LOGGER.debug("Created LoaderThread {} of {}", activeLoaderThreads.get(), threads);
+
+            executor.execute(loaderThread);
+        }
+    }
+
+    /**
+     * The default executor which starts a new daemon thread for every loader thread, idle threads are kept around for a
+     * while so that a following batch doesn't have to create new ones.
+     */
+    private static class LoaderThreadExecutor extends ThreadPoolExecutor {
+
+        private static final long KEEP_ALIVE_SECONDS = 30;
 
-        if (loadingTasks.isEmpty() && loadedTasks.size() == tasksToLoad && !loadingComplete) {
-            loadingComplete = true;
-            LOGGER.debug("Completed loading {} tasks in {} ms using {} threads", loadedTasks.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - loadingStartedAt), threads);
+        private LoaderThreadExecutor() {
+            super(0, Integer.MAX_VALUE, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS, new SynchronousQueue<>(), new LoaderThreadFactory());
         }
+    }
+
+    /**
+     * Holds the daemon thread which cancels tasks once they exceed their timeout, it is only created once the first
+     * timeout is scheduled.
+     */
+    private static class Watchdog {
 
-        String message = "";
-        final Description description = loadingTask.getClass().getAnnotation(Description.class);
+        private static final ScheduledThreadPoolExecutor EXECUTOR = new ScheduledThreadPoolExecutor(1, runnable -> {
+            final Thread thread = new Thread(runnable, "LoaderWatchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
 
-        if (description != null && description.value() != null) {
-            message = description.value();
+        static {
+            // Most tasks complete long before their timeout, don't keep their cancelled timeouts around.
+            EXECUTOR.setRemoveOnCancelPolicy(true);
         }
+    }
+
+    /**
+     * Holds the daemon thread which saves the loading profile after a batch has completed, it is only created once the
+     * first profile is saved. Saves are written one at a time in the order the batches completed.
+     */
+    private static class ProfileWriter {
+
+        private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "LoadingProfileWriter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates the daemon threads used by {@link LoaderThreadExecutor}.
+     */
+    private static class LoaderThreadFactory implements ThreadFactory {
 
-        progress = (float) totalProgress.addAndGet(progressPerAsset);
-        progressCallback.progress(message, loadingComplete, progress);
+        private final AtomicInteger threadCount = new AtomicInteger();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+            final Thread thread = new Thread(runnable, "LoaderThread " + threadCount.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
     }
 }
@@ -0,0 +1,160 @@
+package com.kendanware.jme3.taskloader;
+
+import com.jme3.app.state.AbstractAppState;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * An app state which the {@link LoadingManager} attaches to the application to do its render thread work once per frame.
+ * It executes the render thread stages of {@link StagedLoadingTask}s within the frame budget and delivers the latest
+ * coalesced progress to the {@link ProgressCallback} when progress is delivered using {@link ProgressDelivery#RENDER_THREAD}.
+ * <p>
+ * The app state attaches itself whenever there is work for it and detaches once there is none left. Both happen while
+ * holding its lock, so work handed to it from a loader thread while it is detaching attaches it again instead of
+ * being left behind.
+ * </p>
+ */
+class LoadingManagerAppState extends AbstractAppState {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadingManagerAppState.class);
+
+    private final LoadingManager loadingManager;
+    private final ProgressCallback progressCallback;
+    private final Queue<StagedLoadingTask> stagedTasks = new ConcurrentLinkedQueue<>();
+    private final Object lock = new Object();
+    private volatile long renderThreadBudgetNanos;
+    private boolean attached;
+    private boolean progressChanged;
+    private String message;
+    private boolean loadingCompleted;
+    private float progress;
+
+    LoadingManagerAppState(final LoadingManager loadingManager, final ProgressCallback progressCallback, final long renderThreadBudgetNanos) {
+        this.loadingManager = loadingManager;
+        this.progressCallback = progressCallback;
+        this.renderThreadBudgetNanos = renderThreadBudgetNanos;
+    }
+
+    void setRenderThreadBudget(final long renderThreadBudgetNanos) {
+        this.renderThreadBudgetNanos = renderThreadBudgetNanos;
+    }
+
+    /**
+     * Queues the render thread stage of a task which has been loaded by a loader thread.
+     *
+     * @param stagedTask the task to execute {@link StagedLoadingTask#loadOnRenderThread(com.jme3.app.Application)} for.
+     */
+    void stage(final StagedLoadingTask stagedTask) {
+        stagedTasks.add(stagedTask);
+        attach();
+    }
+
+    /**
+     * Attaches the app state to the application unless it is attached already.
+     */
+    void attach() {
+        synchronized (lock) {
+            if (!attached) {
+                attached = true;
+                loadingManager.getApplication().getStateManager().attach(this);
+            }
+        }
+    }
+
+    /**
+     * Removes every queued render thread stage without executing it.
+     *
+     * @return the tasks whose render thread stage was queued.
+     */
+    List<StagedLoadingTask> drainStagedTasks() {
+        final List<StagedLoadingTask> drainedTasks = new ArrayList<>();
+        StagedLoadingTask stagedTask;
+
+        while ((stagedTask = stagedTasks.poll()) != null) {
+            drainedTasks.add(stagedTask);
+        }
+
+        return drainedTasks;
+    }
+
+    /**
+     * Stores the latest progress for delivery on the next frame, replacing any progress which hasn't been delivered yet.
+     * A completed batch stays pending until it has been delivered.
+     *
+     * @param message          the message of the task which was just loaded.
+     * @param loadingCompleted true if this progress completed a batch.
+     * @param progress         the overall progress.
+     */
+    void progress(final String message, final boolean loadingCompleted, final float progress) {
+        synchronized (lock) {
+            this.message = message;
+            this.loadingCompleted |= loadingCompleted;
+            this.progress = progress;
+            this.progressChanged = true;
+        }
+
+        // The final progress of a batch can arrive after the app state has seen the batch completed and detached.
+        attach();
+    }
+
+    @Override
+    public void update(final float tpf) {
+        runStagedTasks();
+        deliverProgress();
+
+        // Stay attached while there is anything left to do, e.g. if the progress callback started another batch.
+        synchronized (lock) {
+            if (attached && stagedTasks.isEmpty() && !progressChanged && !loadingManager.isLoadingInProgress()) {
+                attached = false;
+                loadingManager.getApplication().getStateManager().detach(this);
+            }
+        }
+    }
+
+    private void deliverProgress() {
+        final String message;
+        final boolean loadingCompleted;
+        final float progress;
+
+        synchronized (lock) {
+            if (!progressChanged) {
+                return;
+            }
+
+            message = this.message;
+            loadingCompleted = this.loadingCompleted;
+            progress = loadingCompleted ? 1.0f : this.progress;
+            this.loadingCompleted = false;
+            this.progressChanged = false;
+        }
+
+        progressCallback.progress(message, loadingCompleted, progress);
+    }
+
+    private void runStagedTasks() {
+        final long startedAt = System.nanoTime();
+        StagedLoadingTask stagedTask;
+
+        // Always run at least one stage per frame so loading moves on even with a tiny budget.
+        while ((stagedTask = stagedTasks.poll()) != null) {
+            try {
+                LOGGER.trace("Loading task {} on the render thread", stagedTask.getClass().getSimpleName());
+                stagedTask.loadOnRenderThread(loadingManager.getApplication());
+            } catch (Exception e) {
+                LOGGER.error("Exception caught during loading on the render thread", e);
+                loadingManager.getApplication().handleError(e.getLocalizedMessage(), e);
+            } finally {
+                loadingManager.complete(stagedTask);
+            }
+
+            if (System.nanoTime() - startedAt >= renderThreadBudgetNanos) {
+                break;
+            }
+        }
+    }
+}
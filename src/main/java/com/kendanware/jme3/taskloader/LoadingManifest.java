@@ -0,0 +1,211 @@
+package com.kendanware.jme3.taskloader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A list of assets to load, each with a type, an optional cost and the assets it depends on. A manifest is registered in
+ * one go using {@link LoadingManager#registerManifest(LoadingManifest, java.util.function.Function)}, which creates a
+ * task per entry and wires up the dependencies between them, instead of registering thousands of tasks one by one.
+ * <p>
+ * A manifest can be built in code using {@link #add(String, String, double, String...)} or loaded from a file with one
+ * asset per line, blank lines and lines starting with # are ignored:
+ * </p>
+ * <pre>
+ *     # path                 type      cost  dependencies
+ *     Textures/bark.png      texture   0.5
+ *     Models/tree.j3o        model     2.0   Textures/bark.png
+ *     Scenes/forest.j3o      scene           Models/tree.j3o
+ * </pre>
+ * <p>
+ * Columns are separated by whitespace, so paths can't contain any. The third column is taken as the cost if it is a
+ * number, otherwise it is the first dependency and the cost of the task is used instead, see
+ * {@link com.kendanware.jme3.taskloader.annotation.Cost}.
+ * </p>
+ */
+public final class LoadingManifest {
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * Adds an asset to the manifest whose cost is taken from its task.
+     *
+     * @param path         the path of the asset, which other entries use to depend on it.
+     * @param type         the type of the asset, e.g. "model", for the task factory to decide which task to create.
+     * @param dependencies the paths of the entries which have to be loaded before this one.
+     * @return this manifest.
+     */
+    public LoadingManifest add(final String path, final String type, final String... dependencies) {
+        return add(new Entry(path, type, 0.0, false, Arrays.asList(dependencies)));
+    }
+
+    /**
+     * Adds an asset to the manifest.
+     *
+     * @param path         the path of the asset, which other entries use to depend on it.
+     * @param type         the type of the asset, e.g. "model", for the task factory to decide which task to create.
+     * @param cost         the estimated cost of loading the asset, see {@link LoadingManager#registerForLoading(LoadingTask, int, double)}.
+     * @param dependencies the paths of the entries which have to be loaded before this one.
+     * @return this manifest.
+     */
+    public LoadingManifest add(final String path, final String type, final double cost, final String... dependencies) {
+        if (!(cost > 0.0)) {
+            throw new IllegalArgumentException("cost must be greater than 0");
+        }
+
+        return add(new Entry(path, type, cost, true, Arrays.asList(dependencies)));
+    }
+
+    private LoadingManifest add(final Entry entry) {
+        if (entry.path == null || entry.path.isEmpty()) {
+            throw new IllegalArgumentException("path is required");
+        }
+
+        if (entry.type == null || entry.type.isEmpty()) {
+            throw new IllegalArgumentException("type is required");
+        }
+
+        if (entries.putIfAbsent(entry.path, entry) != null) {
+            throw new IllegalArgumentException(entry.path + " is already in the manifest");
+        }
+
+        return this;
+    }
+
+    /**
+     * Returns the entries of the manifest in the order they were added.
+     *
+     * @return the entries.
+     */
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(new ArrayList<>(entries.values()));
+    }
+
+    /**
+     * Returns the number of entries in the manifest.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Loads a manifest from a file, see the description of this class for the format.
+     *
+     * @param path the file to load from.
+     * @return the loaded manifest.
+     * @throws IOException if the file can't be read or a line is malformed.
+     */
+    public static LoadingManifest load(final Path path) throws IOException {
+        final LoadingManifest loadingManifest = new LoadingManifest();
+
+        try (final BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                final String[] columns = line.split("\\s+");
+
+                if (columns.length < 2) {
+                    throw new IOException("Malformed line " + lineNumber + " in loading manifest " + path + ": " + line);
+                }
+
+                final List<String> dependencies = new ArrayList<>(Arrays.asList(columns).subList(2, columns.length));
+                final Double cost = dependencies.isEmpty() ? null : parseCost(dependencies.get(0));
+
+                if (cost != null) {
+                    dependencies.remove(0);
+                }
+
+                try {
+                    loadingManifest.add(new Entry(columns[0], columns[1], cost != null ? cost : 0.0, cost != null, dependencies));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Malformed line " + lineNumber + " in loading manifest " + path + ": " + e.getMessage(), e);
+                }
+            }
+        }
+
+        return loadingManifest;
+    }
+
+    private static Double parseCost(final String column) throws IOException {
+        try {
+            final double cost = Double.parseDouble(column);
+
+            if (!(cost > 0.0)) {
+                throw new IOException("cost must be greater than 0: " + column);
+            }
+
+            return cost;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A single asset of a {@link LoadingManifest}.
+     */
+    public static final class Entry {
+
+        private final String path;
+        private final String type;
+        private final double cost;
+        private final boolean costDeclared;
+        private final List<String> dependencies;
+
+        private Entry(final String path, final String type, final double cost, final boolean costDeclared, final List<String> dependencies) {
+            this.path = path;
+            this.type = type;
+            this.cost = cost;
+            this.costDeclared = costDeclared;
+            this.dependencies = Collections.unmodifiableList(new ArrayList<>(dependencies));
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        /**
+         * Returns the cost of the entry, only meaningful if {@link #isCostDeclared()} is true.
+         *
+         * @return the cost.
+         */
+        public double getCost() {
+            return cost;
+        }
+
+        public boolean isCostDeclared() {
+            return costDeclared;
+        }
+
+        public List<String> getDependencies() {
+            return dependencies;
+        }
+
+        @Override
+        public String toString() {
+            return path + " (" + type + ")";
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.kendanware.jme3.taskloader;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live metrics of a {@link LoadingManager}, get them with {@link LoadingManager#getMetrics()}. Counters are updated
+ * without locks or allocations per task so the metrics are always enabled, reading them never blocks loading.
+ * <p>
+ * The counters accumulate over every batch loaded by the LoadingManager. Queue depths are a snapshot of the current
+ * batch.
+ * </p>
+ */
+public class LoadingMetrics {
+
+    private final TaskGraph taskGraph;
+    private final LongAdder tasksStarted = new LongAdder();
+    private final LongAdder tasksCompleted = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+    private final LongAdder stoppedWorkersBusyNanos = new LongAdder();
+    private final LongAdder stoppedWorkersIdleNanos = new LongAdder();
+    private final Map<Long, WorkerMetrics> workers = new ConcurrentHashMap<>();
+    private final ThreadLocal<WorkerMetrics> currentWorker = ThreadLocal.withInitial(this::registerWorker);
+
+    LoadingMetrics(final TaskGraph taskGraph) {
+        this.taskGraph = taskGraph;
+    }
+
+    void taskStarted(final long idleNanos, final long queueWaitNanos) {
+        tasksStarted.increment();
+        this.queueWaitNanos.add(queueWaitNanos);
+        currentWorker.get().recordIdle(idleNanos);
+    }
+
+    void workerIdle(final long idleNanos) {
+        currentWorker.get().recordIdle(idleNanos);
+    }
+
+    void workerBusy(final long busyNanos) {
+        currentWorker.get().recordBusy(busyNanos);
+    }
+
+    /**
+     * Called on a loader thread which is about to stop. Its metrics are dropped so that executors which replace their
+     * threads don't make the workers grow without bound, its busy and idle time still count towards the utilisation.
+     */
+    void workerStopped() {
+        final WorkerMetrics worker = workers.remove(Thread.currentThread().getId());
+        currentWorker.remove();
+
+        if (worker != null) {
+            stoppedWorkersBusyNanos.add(worker.getBusyNanos());
+            stoppedWorkersIdleNanos.add(worker.getIdleNanos());
+        }
+    }
+
+    void taskCompleted() {
+        tasksCompleted.increment();
+    }
+
+    /**
+     * Returns the number of tasks loader threads have started loading.
+     *
+     * @return the number of started tasks.
+     */
+    public long getTasksStarted() {
+        return tasksStarted.sum();
+    }
+
+    /**
+     * Returns the number of tasks which have completed, including the render thread stage of a {@link StagedLoadingTask}.
+     *
+     * @return the number of completed tasks.
+     */
+    public long getTasksCompleted() {
+        return tasksCompleted.sum();
+    }
+
+    /**
+     * Returns the number of tasks which are ready to be loaded and waiting for a loader thread or for memory.
+     *
+     * @return the current queue depth.
+     */
+    public int getQueueDepth() {
+        return taskGraph.getQueueDepth();
+    }
+
+    /**
+     * Returns the number of ready tasks which are held back because they don't fit into the memory budget, they are
+     * included in {@link #getQueueDepth()}.
+     *
+     * @return the number of tasks waiting for memory.
+     * @see LoadingManager#setMemoryBudget(long)
+     */
+    public int getMemoryWaitingTasks() {
+        return taskGraph.getMemoryWaitingCount();
+    }
+
+    /**
+     * Returns the sum of the declared memory costs of the running tasks.
+     *
+     * @return the memory cost of the running tasks in bytes.
+     */
+    public long getAdmittedMemory() {
+        return taskGraph.getAdmittedMemory();
+    }
+
+    /**
+     * Returns the number of tasks which are waiting for their dependencies to be loaded.
+     *
+     * @return the number of waiting tasks.
+     */
+    public int getWaitingTasks() {
+        return taskGraph.getWaitingCount();
+    }
+
+    /**
+     * Returns the number of tasks which are being loaded right now, including tasks waiting for their render thread stage.
+     *
+     * @return the number of running tasks.
+     */
+    public int getRunningTasks() {
+        return taskGraph.getRunningCount();
+    }
+
+    /**
+     * Returns the total time tasks have been ready to load but waited for a loader thread.
+     *
+     * @param timeUnit the unit to return the time in.
+     * @return the total queue wait time.
+     */
+    public long getQueueWaitTime(final TimeUnit timeUnit) {
+        return timeUnit.convert(queueWaitNanos.sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the average time a task has been ready to load but waited for a loader thread.
+     *
+     * @param timeUnit the unit to return the time in.
+     * @return the average queue wait time, 0 if no task has been started yet.
+     */
+    public long getAverageQueueWaitTime(final TimeUnit timeUnit) {
+        final long started = tasksStarted.sum();
+
+        return started > 0 ? timeUnit.convert(queueWaitNanos.sum() / started, TimeUnit.NANOSECONDS) : 0;
+    }
+
+    /**
+     * Returns the metrics of every running loader thread which has loaded tasks for the LoadingManager, the metrics of a
+     * loader thread are dropped once it stops.
+     *
+     * @return an unmodifiable view of the worker metrics.
+     */
+    public Collection<WorkerMetrics> getWorkers() {
+        return Collections.unmodifiableCollection(workers.values());
+    }
+
+    /**
+     * Returns the share of time all workers together have spent loading tasks rather than waiting for tasks to become
+     * ready. A low utilisation means the dependency graph doesn't offer enough parallelism for the number of threads.
+     *
+     * @return a value between 0.0 and 1.0, 0.0 if nothing has been loaded yet.
+     */
+    public double getUtilisation() {
+        long busy = stoppedWorkersBusyNanos.sum();
+        long idle = stoppedWorkersIdleNanos.sum();
+
+        for (final WorkerMetrics worker : workers.values()) {
+            busy += worker.getBusyNanos();
+            idle += worker.getIdleNanos();
+        }
+
+        return busy + idle > 0 ? (double) busy / (busy + idle) : 0.0;
+    }
+
+    private WorkerMetrics registerWorker() {
+        final Thread thread = Thread.currentThread();
+        final WorkerMetrics worker = new WorkerMetrics(thread.getId(), thread.getName());
+        workers.put(worker.getThreadId(), worker);
+
+        return worker;
+    }
+}
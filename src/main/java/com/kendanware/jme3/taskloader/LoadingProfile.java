@@ -0,0 +1,132 @@
+package com.kendanware.jme3.taskloader;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A LoadingProfile records how long tasks take to load, how long they waited for a loader thread and which thread
+ * loaded them, per task class. The {@link LoadingManager} keeps one for its whole lifetime and uses the recorded load
+ * times as the cost of tasks which don't declare one with {@link com.kendanware.jme3.taskloader.annotation.Cost}, which
+ * drives both progress weighting and {@link TaskOrdering#CRITICAL_PATH} ordering.
+ * <p>
+ * A profile can be saved to a file and loaded again on the next run so the ordering and weighting is right from the
+ * first load, see {@link LoadingManager#setProfilePath(Path)}. Tasks implemented as lambdas are not recorded since their
+ * class names change between runs.
+ * </p>
+ */
+public class LoadingProfile {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadingProfile.class);
+    private static final String HEADER = "# task class\tloads\taverage load nanos\taverage queue wait nanos\tlast thread id";
+
+    private final Map<String, TaskProfile> taskProfiles = new ConcurrentHashMap<>();
+
+    /**
+     * Records a single load of a task.
+     *
+     * @param loadingTaskClass the class of the task which was loaded.
+     * @param loadNanos        the time it took to load the task.
+     * @param queueWaitNanos   the time the task was ready but waited for a loader thread.
+     * @param threadId         the id of the thread which loaded the task.
+     */
+    public void record(final Class<? extends LoadingTask> loadingTaskClass, final long loadNanos, final long queueWaitNanos, final long threadId) {
+        if (loadingTaskClass.isSynthetic()) {
+            return;
+        }
+
+        taskProfiles.computeIfAbsent(loadingTaskClass.getName(), key -> new TaskProfile()).record(loadNanos, queueWaitNanos, threadId);
+    }
+
+    /**
+     * Returns the recorded timings for a task class.
+     *
+     * @param loadingTaskClass the task class to look up.
+     * @return the recorded timings or null if the class has never been loaded.
+     */
+    public TaskProfile getTaskProfile(final Class<? extends LoadingTask> loadingTaskClass) {
+        return taskProfiles.get(loadingTaskClass.getName());
+    }
+
+    /**
+     * Returns the estimated cost of a task class which is its average load time in milliseconds.
+     *
+     * @param loadingTaskClass the task class to look up.
+     * @param defaultCost      the cost to return if the class has never been loaded.
+     * @return the estimated cost or defaultCost if nothing has been recorded.
+     */
+    double getEstimatedCost(final Class<? extends LoadingTask> loadingTaskClass, final double defaultCost) {
+        final TaskProfile taskProfile = getTaskProfile(loadingTaskClass);
+
+        if (taskProfile == null) {
+            return defaultCost;
+        }
+
+        // Never return 0, tasks which load in less than a microsecond still count for something.
+        return Math.max(0.001, taskProfile.getAverageLoadMillis());
+    }
+
+    /**
+     * Saves the profile to a file, one line per task class. The file is written next to the target first and then moved
+     * into place so a crash while saving doesn't leave a broken profile behind.
+     *
+     * @param path the file to save to.
+     * @throws IOException if the file can't be written.
+     */
+    public void save(final Path path) throws IOException {
+        final Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+
+        try (final BufferedWriter writer = Files.newBufferedWriter(temporaryPath, StandardCharsets.UTF_8)) {
+            writer.write(HEADER);
+            writer.newLine();
+
+            for (final Map.Entry<String, TaskProfile> entry : new TreeMap<>(taskProfiles).entrySet()) {
+                writer.write(entry.getKey() + "\t" + entry.getValue().format());
+                writer.newLine();
+            }
+        }
+
+        Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Loads a profile which was saved using {@link #save(Path)}. Lines which can't be parsed are skipped with a warning.
+     *
+     * @param path the file to load from.
+     * @return the loaded profile.
+     * @throws IOException if the file can't be read.
+     */
+    public static LoadingProfile load(final Path path) throws IOException {
+        final LoadingProfile loadingProfile = new LoadingProfile();
+
+        try (final BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+
+                final String[] columns = line.split("\t");
+
+                try {
+                    loadingProfile.taskProfiles.put(columns[0], new TaskProfile(Long.parseLong(columns[1]), Long.parseLong(columns[2]), Long.parseLong(columns[3]), Long.parseLong(columns[4])));
+                } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                    LOGGER.warn("Skipping malformed line in loading profile {}: {}", path, line);
+                }
+            }
+        }
+
+        return loadingProfile;
+    }
+}
@@ -0,0 +1,19 @@
+package com.kendanware.jme3.taskloader;
+
+/**
+ * Decides how the {@link LoadingManager} delivers progress to its {@link ProgressCallback}.
+ */
+public enum ProgressDelivery {
+
+    /**
+     * The callback is called for every completed task straight from the loader thread which completed it.
+     */
+    IMMEDIATE,
+
+    /**
+     * Progress is coalesced and the callback is called at most once per frame on the render thread with the latest
+     * progress. Completion of a batch is always delivered. Use this when the callback updates the GUI, there is no need
+     * to enqueue anything on the render thread yourself.
+     */
+    RENDER_THREAD
+}
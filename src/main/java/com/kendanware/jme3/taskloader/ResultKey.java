@@ -0,0 +1,63 @@
+package com.kendanware.jme3.taskloader;
+
+/**
+ * Identifies a typed result which one {@link LoadingTask} publishes for the tasks depending on it, e.g. a decoded
+ * heightmap which is used by the terrain, collision and minimap tasks. Keys are compared by identity so they are
+ * usually kept in constants.
+ * <pre>
+ *     public static final ResultKey&lt;float[]&gt; HEIGHTMAP = new ResultKey&lt;&gt;("heightmap", float[].class);
+ *
+ *     // In the task decoding the heightmap:
+ *     TaskContext.current().publish(HEIGHTMAP, heights);
+ *
+ *     // In a task annotated with {@literal @}DependsOn(HeightmapLoadingTask.class):
+ *     final float[] heights = TaskContext.current().getResult(HEIGHTMAP);
+ * </pre>
+ */
+public final class ResultKey<V> {
+
+    private final String name;
+    private final Class<V> type;
+
+    /**
+     * Creates a new key.
+     *
+     * @param name a name describing the result, used in error messages.
+     * @param type the type of the result.
+     */
+    public ResultKey(final String name, final Class<V> type) {
+        if (name == null) {
+            throw new IllegalArgumentException("name is required");
+        }
+
+        if (type == null) {
+            throw new IllegalArgumentException("type is required");
+        }
+
+        this.name = name;
+        this.type = type;
+    }
+
+    /**
+     * Returns the name of the result.
+     *
+     * @return the name.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the type of the result.
+     *
+     * @return the type.
+     */
+    public Class<V> getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,26 @@
+package com.kendanware.jme3.taskloader;
+
+import com.jme3.app.Application;
+
+/**
+ * A loading task which has to do part of its work on the render thread, like attaching a loaded model to the scene graph.
+ * {@link #load(Application)} is executed by a {@link LoaderThread} like any other task and once it returns
+ * {@link #loadOnRenderThread(Application)} is executed on the render thread.
+ * <p>
+ * The {@link LoadingManager} runs render thread stages from an app state and only runs as many of them per frame as fit
+ * in its render thread budget, see {@link LoadingManager#setRenderThreadBudget(long, java.util.concurrent.TimeUnit)}.
+ * This spreads scene graph changes and GPU uploads over several frames instead of causing a single long frame, while the
+ * loader threads carry on loading other tasks. The task only counts as loaded, both for progress and for
+ * {@link com.kendanware.jme3.taskloader.annotation.DependsOn}, once its render thread stage has been executed.
+ * </p>
+ */
+public interface StagedLoadingTask<T extends Application> extends LoadingTask<T> {
+
+    /**
+     * This method will be called on the render thread after {@link #load(Application)} has returned. Keep the work done
+     * here small, expensive work belongs in {@link #load(Application)}.
+     *
+     * @param t the application instance provided to the {@link LoadingManager}.
+     */
+    void loadOnRenderThread(final T t);
+}
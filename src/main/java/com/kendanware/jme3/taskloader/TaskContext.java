@@ -0,0 +1,136 @@
+package com.kendanware.jme3.taskloader;
+
+/**
+ * Gives a {@link LoadingTask} access to the state of its own load while it is running. Get it from within
+ * {@link LoadingTask#load(com.jme3.app.Application)} using {@link #current()}.
+ * <p>
+ * Tasks are cancelled when {@link LoadingManager#cancel()} is called or when they exceed their timeout, see
+ * {@link com.kendanware.jme3.taskloader.annotation.Timeout}. The loader thread is interrupted as well, which stops
+ * blocking I/O and sleeps, but long running computations should check for cancellation now and then and give up early.
+ * </p>
+ * <pre>
+ *     public void load(final SimpleApplication application) {
+ *         for (final String texture : textures) {
+ *             TaskContext.current().throwIfCancelled();
+ *             application.getAssetManager().loadTexture(texture);
+ *         }
+ *     }
+ * </pre>
+ */
+public final class TaskContext {
+
+    private static final ThreadLocal<TaskContext> CURRENT = ThreadLocal.withInitial(TaskContext::new);
+
+    private LoadingManager<?> loadingManager;
+    private TaskNode taskNode;
+
+    private TaskContext() {
+    }
+
+    /**
+     * Returns the context of the task which is being loaded by the calling thread. Outside of a task the returned
+     * context is never cancelled.
+     *
+     * @return the context of the calling thread.
+     */
+    public static TaskContext current() {
+        return CURRENT.get();
+    }
+
+    static void enter(final LoadingManager<?> loadingManager, final TaskNode taskNode) {
+        final TaskContext taskContext = CURRENT.get();
+        taskContext.loadingManager = loadingManager;
+        taskContext.taskNode = taskNode;
+    }
+
+    static void exit() {
+        final TaskContext taskContext = CURRENT.get();
+        taskContext.loadingManager = null;
+        taskContext.taskNode = null;
+    }
+
+    /**
+     * Returns true if the task has been cancelled and should stop loading as soon as possible.
+     *
+     * @return true if the task has been cancelled, otherwise false.
+     */
+    public boolean isCancelled() {
+        final TaskNode taskNode = this.taskNode;
+
+        return taskNode != null && taskNode.cancelled;
+    }
+
+    /**
+     * Throws a {@link LoadingCancelledException} if the task has been cancelled. The exception is expected by the
+     * loader thread and isn't reported as an error.
+     *
+     * @throws LoadingCancelledException if the task has been cancelled.
+     */
+    public void throwIfCancelled() {
+        if (isCancelled()) {
+            throw new LoadingCancelledException(taskNode.getTaskClass().getSimpleName() + " has been cancelled");
+        }
+    }
+
+    /**
+     * Publishes a result of the task for the tasks depending on it, see
+     * {@link LoadingManager#publishResult(ResultKey, Object)}.
+     *
+     * @param resultKey the key of the result.
+     * @param result    the result.
+     * @param <V>       the type of the result.
+     * @throws IllegalStateException if called outside of a task.
+     */
+    public <V> void publish(final ResultKey<V> resultKey, final V result) {
+        getLoadingManager().publishResult(resultKey, result);
+    }
+
+    /**
+     * Returns a result published by a task this task depends on, see {@link LoadingManager#getResult(ResultKey)}.
+     *
+     * @param resultKey the key of the result.
+     * @param <V>       the type of the result.
+     * @return the result.
+     * @throws IllegalStateException if called outside of a task or if the result hasn't been published.
+     */
+    public <V> V getResult(final ResultKey<V> resultKey) {
+        return getLoadingManager().getResult(resultKey);
+    }
+
+    /**
+     * Registers a child task of the running task, e.g. one per part of a texture atlas which is split up. Children are
+     * loaded in parallel by other loader threads and the running task only counts as loaded, both for progress and for
+     * its dependents, once all of its children have been loaded. Children which are spawned by a
+     * {@link StagedLoadingTask} are awaited after its render thread stage.
+     *
+     * @param loadingTask the child task.
+     * @return a handle of the child task.
+     * @throws IllegalStateException     if called outside of a task.
+     * @throws LoadingCancelledException if the batch of the running task has been cancelled.
+     */
+    public TaskHandle spawn(final LoadingTask loadingTask) {
+        final LoadingManager<?> loadingManager = getLoadingManager();
+
+        return loadingManager.spawn(taskNode, loadingTask);
+    }
+
+    /**
+     * Returns the asset cache of the loading manager, see {@link LoadingManager#getAssetCache()}.
+     *
+     * @return the asset cache.
+     * @throws IllegalStateException if called outside of a task.
+     */
+    public AssetCache getAssetCache() {
+        return getLoadingManager().getAssetCache();
+    }
+
+    private LoadingManager<?> getLoadingManager() {
+        final LoadingManager<?> loadingManager = this.loadingManager;
+
+        if (loadingManager == null) {
+            throw new IllegalStateException("No task is being loaded by " + Thread.currentThread().getName());
+        }
+
+        return loadingManager;
+    }
+}
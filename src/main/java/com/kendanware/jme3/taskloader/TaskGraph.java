@@ -0,0 +1,843 @@
+package com.kendanware.jme3.taskloader;
+
+import com.kendanware.jme3.taskloader.annotation.DependsOn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The TaskGraph keeps track of which registered tasks are still waiting on their {@link DependsOn} dependencies and which
+ * ones are ready to be loaded. Every task gets a counter of unresolved dependencies when it is scheduled and is only
+ * handed out once that counter reaches zero, completing a task releases the tasks that were waiting on its class or on
+ * the task itself through its {@link TaskHandle}. Tasks depending on all instances of a class are released once no
+ * instance of the class is outstanding anymore. This
+ * means a {@link LoaderThread} never sees a task it can't load yet and will block instead of spinning when there is
+ * nothing ready to load.
+ * <p>
+ * Ready tasks are handed out by their declared priority first. With {@link TaskOrdering#CRITICAL_PATH} tasks of equal
+ * priority are then ordered by the length of the longest dependency chain waiting on them, so long chains get going
+ * early and cores don't sit idle at the end of the load. Otherwise tasks are handed out in the order they were
+ * registered.
+ * </p>
+ * <p>
+ * With a memory budget a ready task with a {@link com.kendanware.jme3.taskloader.annotation.MemoryCost} is only handed
+ * out while it fits into the budget together with the running tasks, otherwise it waits until enough running tasks have
+ * completed. While such a task waits no other task with a memory cost is handed out ahead of it, so large tasks aren't
+ * starved by a stream of smaller ones, but tasks without a memory cost keep the loader threads busy. A task which doesn't
+ * fit into the budget on its own is handed out once nothing else with a memory cost is running.
+ * </p>
+ * <p>
+ * A {@link ReentrantLock} is used rather than a monitor so a worker waiting for a task doesn't pin its carrier thread
+ * when the loading manager runs on virtual threads.
+ * </p>
+ */
+class TaskGraph {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TaskGraph.class);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition taskAvailable = lock.newCondition();
+    private final Queue<TaskNode> readyTasks = new PriorityQueue<>(TaskNode.READY_ORDER);
+    private final Queue<TaskNode> memoryWaitingTasks = new PriorityQueue<>(TaskNode.READY_ORDER);
+    private final Map<Class<? extends LoadingTask>, List<TaskNode>> waitingTasks = new HashMap<>();
+    private final Map<Class<? extends LoadingTask>, List<TaskNode>> waitingForAllInstances = new HashMap<>();
+    private final Map<Class<? extends LoadingTask>, Integer> outstandingClasses = new HashMap<>();
+    private final Map<LoadingTask, TaskNode> runningTasks = new IdentityHashMap<>();
+    private final Set<Class<? extends LoadingTask>> loadedTasks = ConcurrentHashMap.newKeySet();
+    private int outstandingTasks;
+    private int running;
+    private long memoryBudget;
+    private long admittedMemory;
+    private volatile int queueDepth;
+    private volatile int runningCount;
+    private volatile int waitingCount;
+    private volatile int memoryWaitingCount;
+    private volatile long admittedMemoryCount;
+    private volatile TaskOrdering taskOrdering = TaskOrdering.REGISTRATION_ORDER;
+
+    /**
+     * Sets how tasks of equal priority are ordered. Only affects tasks scheduled after this call.
+     *
+     * @param taskOrdering the ordering to use.
+     */
+    void setTaskOrdering(final TaskOrdering taskOrdering) {
+        this.taskOrdering = taskOrdering;
+    }
+
+    /**
+     * Sets how many bytes the memory costs of the running tasks may add up to, 0 for no limit.
+     *
+     * @param memoryBudget the memory budget in bytes.
+     */
+    void setMemoryBudget(final long memoryBudget) {
+        lock.lock();
+
+        try {
+            this.memoryBudget = memoryBudget;
+
+            // A larger budget might let waiting tasks start.
+            taskAvailable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the provided tasks to the graph. Tasks without unresolved dependencies are made available through
+     * {@link #takeNode()} straight away, the rest wait until all the classes and task handles they depend on have been
+     * loaded.
+     *
+     * @param taskNodes the tasks to schedule.
+     * @param validate  true if the tasks should be checked for dependencies which can never be fulfilled.
+     * @throws IllegalStateException     if validate is true and a task depends on a class or task which is neither
+     *                                   loaded nor scheduled or if the dependencies form a cycle.
+     * @throws LoadingCancelledException if a task is the child of a task whose batch has been cancelled.
+     */
+    void schedule(final Collection<TaskNode> taskNodes, final boolean validate) {
+        lock.lock();
+
+        try {
+            final Map<Class<? extends LoadingTask>, Integer> scheduledInstances = new HashMap<>();
+
+            for (final TaskNode taskNode : taskNodes) {
+                if (taskNode.parent != null && taskNode.parent.drained) {
+                    throw new LoadingCancelledException("Can't spawn " + taskNode.getTaskClass().getSimpleName() + ", the batch of its parent task has been cancelled");
+                }
+
+                scheduledInstances.merge(taskNode.getTaskClass(), 1, Integer::sum);
+            }
+
+            for (final TaskNode taskNode : taskNodes) {
+                taskNode.dependencies = getUnresolvedDependencies(taskNode.getLoadingTask(), scheduledInstances);
+                taskNode.unresolvedDependencies = taskNode.dependencies.size();
+
+                for (final TaskNode dependency : taskNode.handleDependencies) {
+                    if (!dependency.loaded) {
+                        taskNode.unresolvedDependencies++;
+                    }
+                }
+            }
+
+            if (validate) {
+                validate(taskNodes, scheduledInstances);
+            }
+
+            if (taskOrdering == TaskOrdering.CRITICAL_PATH) {
+                computeCriticalPaths(taskNodes);
+            }
+
+            for (final TaskNode taskNode : taskNodes) {
+                taskNode.scheduled = true;
+                outstandingTasks++;
+                outstandingClasses.merge(taskNode.getTaskClass(), 1, Integer::sum);
+
+                if (taskNode.parent != null) {
+                    taskNode.parent.pendingChildren++;
+                }
+
+                if (taskNode.unresolvedDependencies == 0) {
+                    makeReady(taskNode);
+                    continue;
+                }
+
+                for (final TaskNode dependency : taskNode.handleDependencies) {
+                    if (!dependency.loaded) {
+                        if (dependency.dependents == null) {
+                            dependency.dependents = new ArrayList<>();
+                        }
+
+                        dependency.dependents.add(taskNode);
+                    }
+                }
+
+                final Map<Class<? extends LoadingTask>, List<TaskNode>> waiting = TaskMetadata.of(taskNode.getLoadingTask()).isAllInstances() ? waitingForAllInstances : waitingTasks;
+
+                for (final Class<? extends LoadingTask> dependency : taskNode.dependencies) {
+                    waiting.computeIfAbsent(dependency, key -> new ArrayList<>()).add(taskNode);
+                }
+            }
+
+            updateCounts();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Takes the next task which is ready to be loaded, blocking while there are outstanding tasks but none of them are
+     * ready yet.
+     *
+     * @return the node of the next task to load or null if there are no more outstanding tasks.
+     */
+    TaskNode takeNode() {
+        lock.lock();
+
+        try {
+            TaskNode taskNode;
+
+            while ((taskNode = admit()) == null) {
+                if (outstandingTasks == 0) {
+                    return null;
+                }
+
+                taskAvailable.await();
+            }
+
+            taskNode.startedAt = System.nanoTime();
+            taskNode.threadId = Thread.currentThread().getId();
+            taskNode.thread = Thread.currentThread();
+            // The same instance can be registered several times, e.g. a lambda which doesn't capture anything.
+            taskNode.nextRunning = runningTasks.put(taskNode.getLoadingTask(), taskNode);
+            running++;
+            updateCounts();
+
+            return taskNode;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Marks a task as loaded and releases any task which was only waiting on this task. A task which has spawned child
+     * tasks which haven't completed yet is deferred instead, it is marked as loaded together with its last child.
+     *
+     * @param loadingTask the task which has completed.
+     * @param taskNode    the node of the running task if it is known, otherwise it is looked up, see {@link #findRunning(LoadingTask)}.
+     * @return the node the task was scheduled with or null if the task wasn't handed out through {@link #takeNode()}.
+     */
+    TaskNode complete(final LoadingTask loadingTask, final TaskNode taskNode) {
+        final Class<? extends LoadingTask> loadingTaskClass = loadingTask.getClass();
+
+        lock.lock();
+
+        try {
+            final TaskNode completedTask = taskNode != null ? taskNode : findRunning(loadingTask);
+
+            if (completedTask != null) {
+                removeRunning(completedTask);
+                running--;
+
+                if (completedTask.getMemoryCost() > 0) {
+                    admittedMemory -= completedTask.getMemoryCost();
+
+                    if (!memoryWaitingTasks.isEmpty()) {
+                        taskAvailable.signalAll();
+                    }
+                }
+                completedTask.thread = null;
+                completedTask.future = null;
+
+                // The batch of a drained task has been cancelled, it no longer counts as outstanding and nothing waits
+                // for it.
+                if (completedTask.drained) {
+                    updateCounts();
+                    return completedTask;
+                }
+
+                if (completedTask.pendingChildren > 0) {
+                    completedTask.awaitingChildren = true;
+                    completedTask.deferred = true;
+                    updateCounts();
+                    return completedTask;
+                }
+            }
+
+            markLoaded(loadingTaskClass, completedTask);
+
+            // Completing the last child of a task which is only waiting for its children completes that task as well.
+            TaskNode child = completedTask;
+
+            while (child != null && child.parent != null) {
+                final TaskNode parent = child.parent;
+
+                if (--parent.pendingChildren > 0 || !parent.awaitingChildren) {
+                    break;
+                }
+
+                parent.awaitingChildren = false;
+                child.completedParent = parent;
+                markLoaded(parent.getTaskClass(), parent);
+                child = parent;
+            }
+
+            updateCounts();
+
+            return completedTask;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Looks up a task which has been handed out through {@link #takeNode()} and is continuing somewhere else than on the
+     * thread which took it, e.g. on the render thread or in the future returned by an {@link AsyncLoadingTask}. The
+     * thread can no longer be interrupted for the task after this, instead the future is cancelled if there is one.
+     *
+     * @param loadingTask the task to look up.
+     * @param future      the future which completes the task or null if the task doesn't continue in a future.
+     * @return the node of the running task, which might have been drained, or null if the task isn't running.
+     */
+    TaskNode handOver(final LoadingTask loadingTask, final CompletableFuture<?> future) {
+        lock.lock();
+
+        try {
+            final TaskNode taskNode = findRunning(loadingTask);
+
+            if (taskNode == null) {
+                return null;
+            }
+
+            taskNode.thread = null;
+            taskNode.future = future;
+
+            return taskNode;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Drains every task which hasn't been handed out yet and cancels the running ones, interrupting the threads loading
+     * them. Running tasks still have to be completed but they neither count as outstanding nor mark their class as
+     * loaded. Futures of running tasks are collected instead of cancelled, cancelling them completes their tasks which
+     * must not happen while holding the lock.
+     * <p>
+     * Every task which will never be loaded now is marked as drained, including tasks only waiting on the handles of
+     * other tasks and parents waiting for their children, so a task registered later can't depend on one of them.
+     * </p>
+     *
+     * @param futures the list to add the futures of cancelled tasks to.
+     * @return the number of tasks which were drained before they were started.
+     */
+    int cancel(final List<CompletableFuture<?>> futures) {
+        lock.lock();
+
+        try {
+            final Queue<TaskNode> drainedTasks = new ArrayDeque<>();
+            int cancelled = 0;
+
+            for (final TaskNode runningTask : runningTasks.values()) {
+                for (TaskNode taskNode = runningTask; taskNode != null; taskNode = taskNode.nextRunning) {
+                    if (!taskNode.drained) {
+                        taskNode.drained = true;
+                        drainedTasks.add(taskNode);
+                        cancel(taskNode);
+                        cancelled++;
+
+                        if (taskNode.future != null) {
+                            futures.add(taskNode.future);
+                        }
+                    }
+                }
+            }
+
+            drain(readyTasks, drainedTasks);
+            drain(memoryWaitingTasks, drainedTasks);
+            waitingTasks.values().forEach(waiting -> drain(waiting, drainedTasks));
+            waitingForAllInstances.values().forEach(waiting -> drain(waiting, drainedTasks));
+
+            // Tasks only waiting on the handles of drained tasks and parents waiting for drained children are only
+            // reachable through those.
+            while (!drainedTasks.isEmpty()) {
+                final TaskNode taskNode = drainedTasks.poll();
+
+                if (taskNode.dependents != null) {
+                    drain(taskNode.dependents, drainedTasks);
+                }
+
+                if (taskNode.parent != null) {
+                    drain(Collections.singletonList(taskNode.parent), drainedTasks);
+                }
+            }
+
+            final int drained = Math.max(0, outstandingTasks - cancelled);
+            readyTasks.clear();
+            memoryWaitingTasks.clear();
+            waitingTasks.clear();
+            waitingForAllInstances.clear();
+            outstandingClasses.clear();
+            outstandingTasks = 0;
+
+            // Wake up every idle worker so they can see there is nothing left to do.
+            taskAvailable.signalAll();
+            updateCounts();
+
+            return drained;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Cancels a running task because it has taken longer than its timeout. The task is still marked as loaded once it
+     * returns so the tasks depending on it aren't stuck.
+     *
+     * @param taskNode the node of the task which has timed out.
+     * @return the future of the cancelled task which the caller has to cancel outside of the lock, null if the task
+     * doesn't continue in a future or is no longer running.
+     */
+    CompletableFuture<?> timeOut(final TaskNode taskNode) {
+        lock.lock();
+
+        try {
+            if (taskNode.thread == null && taskNode.future == null || taskNode.cancelled) {
+                return null;
+            }
+
+            taskNode.timedOut = true;
+            cancel(taskNode);
+
+            return taskNode.future;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of tasks which are ready and waiting for a loader thread. Doesn't take the graph lock.
+     *
+     * @return the number of ready tasks.
+     */
+    int getQueueDepth() {
+        return queueDepth;
+    }
+
+    /**
+     * Returns the number of ready tasks which are waiting for running tasks to free up memory. Doesn't take the graph
+     * lock.
+     *
+     * @return the number of ready tasks which don't fit into the memory budget.
+     */
+    int getMemoryWaitingCount() {
+        return memoryWaitingCount;
+    }
+
+    /**
+     * Returns the sum of the memory costs of the running tasks. Doesn't take the graph lock.
+     *
+     * @return the memory cost of the running tasks in bytes.
+     */
+    long getAdmittedMemory() {
+        return admittedMemoryCount;
+    }
+
+    /**
+     * Returns the number of tasks which have been handed out and haven't completed yet. Doesn't take the graph lock.
+     *
+     * @return the number of running tasks.
+     */
+    int getRunningCount() {
+        return runningCount;
+    }
+
+    /**
+     * Returns the number of tasks which are still waiting on dependencies. Doesn't take the graph lock.
+     *
+     * @return the number of waiting tasks.
+     */
+    int getWaitingCount() {
+        return waitingCount;
+    }
+
+    /**
+     * Returns the number of scheduled tasks which haven't completed yet.
+     *
+     * @return the number of outstanding tasks.
+     */
+    int getOutstandingTasks() {
+        lock.lock();
+
+        try {
+            return outstandingTasks;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forgets which task classes have been loaded. Must only be called while no tasks are outstanding.
+     */
+    void reset() {
+        loadedTasks.clear();
+    }
+
+    /**
+     * Checks if all provided task classes have been loaded at least once. This doesn't take the graph lock and is a
+     * constant time lookup per class so it is cheap to call from any thread.
+     *
+     * @param dependencies the task classes to check.
+     * @return true if all the provided classes have been loaded, otherwise false.
+     */
+    boolean hasBeenLoaded(final Class<? extends LoadingTask>... dependencies) {
+        for (final Class<? extends LoadingTask> loadingTaskClass : dependencies) {
+            if (!loadedTasks.contains(loadingTaskClass)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Checks if all provided task classes have been loaded and no instance of them is outstanding.
+     *
+     * @param loadingTaskClasses the task classes to check.
+     * @return true if every instance of the provided classes has been loaded, otherwise false.
+     */
+    boolean haveAllInstancesBeenLoaded(final Class<? extends LoadingTask>... loadingTaskClasses) {
+        lock.lock();
+
+        try {
+            for (final Class<? extends LoadingTask> loadingTaskClass : loadingTaskClasses) {
+                if (!loadedTasks.contains(loadingTaskClass) || outstandingClasses.containsKey(loadingTaskClass)) {
+                    return false;
+                }
+            }
+
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void markLoaded(final Class<? extends LoadingTask> loadingTaskClass, final TaskNode taskNode) {
+        loadedTasks.add(loadingTaskClass);
+        release(waitingTasks.remove(loadingTaskClass));
+
+        if (outstandingClasses.computeIfPresent(loadingTaskClass, (key, count) -> count > 1 ? count - 1 : null) == null) {
+            release(waitingForAllInstances.remove(loadingTaskClass));
+        }
+
+        if (taskNode != null) {
+            taskNode.loaded = true;
+            release(taskNode.dependents);
+            taskNode.dependents = null;
+        }
+
+        if (outstandingTasks > 0 && --outstandingTasks == 0) {
+            // Wake up every idle worker so they can see there is nothing left to do.
+            taskAvailable.signalAll();
+        }
+    }
+
+    private void release(final List<TaskNode> releasedTasks) {
+        if (releasedTasks != null) {
+            for (final TaskNode taskNode : releasedTasks) {
+                if (--taskNode.unresolvedDependencies == 0) {
+                    makeReady(taskNode);
+                }
+            }
+        }
+    }
+
+    private static void drain(final Collection<TaskNode> taskNodes, final Queue<TaskNode> drainedTasks) {
+        for (final TaskNode taskNode : taskNodes) {
+            if (!taskNode.drained && !taskNode.loaded) {
+                taskNode.drained = true;
+                drainedTasks.add(taskNode);
+            }
+        }
+    }
+
+    private void cancel(final TaskNode taskNode) {
+        taskNode.cancelled = true;
+
+        if (taskNode.thread != null) {
+            taskNode.thread.interrupt();
+        }
+    }
+
+    private void updateCounts() {
+        queueDepth = readyTasks.size() + memoryWaitingTasks.size();
+        memoryWaitingCount = memoryWaitingTasks.size();
+        admittedMemoryCount = admittedMemory;
+        runningCount = running;
+        waitingCount = Math.max(0, outstandingTasks - queueDepth - runningCount);
+    }
+
+    /**
+     * Picks the next ready task which may be handed out under the memory budget, moving ready tasks which don't fit over
+     * to the tasks waiting for memory.
+     *
+     * @return the admitted task or null if no ready task may be handed out right now.
+     */
+    private TaskNode admit() {
+        final TaskNode memoryWaitingTask = memoryWaitingTasks.peek();
+
+        if (memoryWaitingTask != null && fitsMemoryBudget(memoryWaitingTask)) {
+            admittedMemory += memoryWaitingTask.getMemoryCost();
+            return memoryWaitingTasks.poll();
+        }
+
+        TaskNode taskNode;
+
+        while ((taskNode = readyTasks.poll()) != null) {
+            if (taskNode.getMemoryCost() == 0) {
+                return taskNode;
+            }
+
+            if (memoryWaitingTasks.isEmpty() && fitsMemoryBudget(taskNode)) {
+                admittedMemory += taskNode.getMemoryCost();
+                return taskNode;
+            }
+
+            memoryWaitingTasks.add(taskNode);
+        }
+
+        return null;
+    }
+
+    private boolean fitsMemoryBudget(final TaskNode taskNode) {
+        return memoryBudget == 0 || admittedMemory == 0 || admittedMemory + taskNode.getMemoryCost() <= memoryBudget;
+    }
+
+    private void makeReady(final TaskNode taskNode) {
+        taskNode.readyAt = System.nanoTime();
+        readyTasks.add(taskNode);
+        taskAvailable.signal();
+    }
+
+    private Set<Class<? extends LoadingTask>> getUnresolvedDependencies(final LoadingTask loadingTask, final Map<Class<? extends LoadingTask>, Integer> scheduledInstances) {
+        final Set<Class<? extends LoadingTask>> unresolvedDependencies = new LinkedHashSet<>();
+        final TaskMetadata taskMetadata = TaskMetadata.of(loadingTask);
+
+        for (final Class<? extends LoadingTask> dependency : taskMetadata.getDependencies()) {
+            final boolean outstanding = outstandingClasses.containsKey(dependency) || scheduledInstances.containsKey(dependency);
+
+            if (!hasBeenLoaded(dependency) || taskMetadata.isAllInstances() && outstanding) {
+                unresolvedDependencies.add(dependency);
+            }
+        }
+
+        return unresolvedDependencies;
+    }
+
+    /**
+     * Looks up the node of a running task. The same instance can be running several times at once, e.g. a lambda which
+     * doesn't capture anything, in which case the node taken by the calling thread is returned, otherwise the node which
+     * was handed over first. Must be called while holding the lock.
+     *
+     * @param loadingTask the running task.
+     * @return the node of the task or null if the task isn't running.
+     */
+    private TaskNode findRunning(final LoadingTask loadingTask) {
+        final TaskNode newest = runningTasks.get(loadingTask);
+        TaskNode handedOver = null;
+
+        for (TaskNode taskNode = newest; taskNode != null; taskNode = taskNode.nextRunning) {
+            if (taskNode.thread == Thread.currentThread()) {
+                return taskNode;
+            }
+
+            // The chain starts with the most recently taken node, so the last match has been running the longest.
+            if (taskNode.thread == null) {
+                handedOver = taskNode;
+            }
+        }
+
+        return handedOver != null ? handedOver : newest;
+    }
+
+    /**
+     * Unlinks a node from the running nodes of its task. Must be called while holding the lock.
+     *
+     * @param taskNode the node to unlink.
+     */
+    private void removeRunning(final TaskNode taskNode) {
+        final LoadingTask loadingTask = taskNode.getLoadingTask();
+        final TaskNode newest = runningTasks.get(loadingTask);
+
+        if (newest == taskNode) {
+            if (taskNode.nextRunning != null) {
+                runningTasks.put(loadingTask, taskNode.nextRunning);
+            } else {
+                runningTasks.remove(loadingTask);
+            }
+        } else {
+            for (TaskNode previous = newest; previous != null; previous = previous.nextRunning) {
+                if (previous.nextRunning == taskNode) {
+                    previous.nextRunning = taskNode.nextRunning;
+                    break;
+                }
+            }
+        }
+
+        taskNode.nextRunning = null;
+    }
+
+    /**
+     * Simulates loading the provided tasks to make sure every one of them will eventually become ready. Classes and tasks
+     * which are already outstanding in the graph are assumed to complete.
+     */
+    private void validate(final Collection<TaskNode> taskNodes, final Map<Class<? extends LoadingTask>, Integer> scheduledInstances) {
+        final Set<TaskNode> scheduledTasks = Collections.newSetFromMap(new IdentityHashMap<>());
+        scheduledTasks.addAll(taskNodes);
+
+        final Map<Class<? extends LoadingTask>, List<TaskNode>> dependents = new HashMap<>();
+        final Map<Class<? extends LoadingTask>, List<TaskNode>> allInstancesDependents = new HashMap<>();
+        final Map<TaskNode, List<TaskNode>> handleDependents = new IdentityHashMap<>();
+        final Map<TaskNode, Integer> unresolved = new IdentityHashMap<>();
+        final Queue<TaskNode> resolvable = new ArrayDeque<>();
+
+        for (final TaskNode taskNode : taskNodes) {
+            final boolean allInstances = TaskMetadata.of(taskNode.getLoadingTask()).isAllInstances();
+            int count = 0;
+
+            for (final Class<? extends LoadingTask> dependency : taskNode.dependencies) {
+                final boolean scheduled = scheduledInstances.containsKey(dependency);
+
+                if (!scheduled && !outstandingClasses.containsKey(dependency)) {
+                    throw new IllegalStateException(taskNode.getTaskClass().getName() + " depends on " + dependency.getName() + " which has not been registered for loading");
+                }
+
+                // Classes outstanding from an earlier schedule call will complete on their own, unless we have to wait
+                // for the instances scheduled now as well.
+                if (scheduled && (allInstances || !outstandingClasses.containsKey(dependency))) {
+                    (allInstances ? allInstancesDependents : dependents).computeIfAbsent(dependency, key -> new ArrayList<>()).add(taskNode);
+                    count++;
+                }
+            }
+
+            for (final TaskNode dependency : taskNode.handleDependencies) {
+                if (dependency.loaded) {
+                    continue;
+                }
+
+                if (dependency.drained) {
+                    throw new IllegalStateException(taskNode.getTaskClass().getName() + " depends on a " + dependency.getTaskClass().getName() + " task whose batch has been cancelled");
+                }
+
+                if (scheduledTasks.contains(dependency)) {
+                    handleDependents.computeIfAbsent(dependency, key -> new ArrayList<>()).add(taskNode);
+                    count++;
+                } else if (!dependency.scheduled) {
+                    throw new IllegalStateException(taskNode.getTaskClass().getName() + " depends on a " + dependency.getTaskClass().getName() + " task which has not been registered for loading");
+                }
+            }
+
+            unresolved.put(taskNode, count);
+
+            if (count == 0) {
+                resolvable.add(taskNode);
+            }
+        }
+
+        final Set<Class<? extends LoadingTask>> resolvedClasses = new HashSet<>();
+        final Map<Class<? extends LoadingTask>, Integer> remainingInstances = new HashMap<>(scheduledInstances);
+        int resolvedTasks = 0;
+
+        while (!resolvable.isEmpty()) {
+            final TaskNode taskNode = resolvable.poll();
+            final Class<? extends LoadingTask> taskClass = taskNode.getTaskClass();
+            resolvedTasks++;
+
+            if (resolvedClasses.add(taskClass)) {
+                resolve(dependents.get(taskClass), unresolved, resolvable);
+            }
+
+            if (remainingInstances.merge(taskClass, -1, Integer::sum) == 0) {
+                resolve(allInstancesDependents.get(taskClass), unresolved, resolvable);
+            }
+
+            resolve(handleDependents.get(taskNode), unresolved, resolvable);
+        }
+
+        if (resolvedTasks < taskNodes.size()) {
+            final Set<String> cyclicTasks = new LinkedHashSet<>();
+
+            for (final TaskNode taskNode : taskNodes) {
+                if (unresolved.get(taskNode) > 0) {
+                    cyclicTasks.add(taskNode.getTaskClass().getName());
+                }
+            }
+
+            throw new IllegalStateException("Circular task dependencies detected between " + cyclicTasks);
+        }
+
+        LOGGER.debug("Validated dependencies of {} tasks", taskNodes.size());
+    }
+
+    private static void resolve(final List<TaskNode> dependents, final Map<TaskNode, Integer> unresolved, final Queue<TaskNode> resolvable) {
+        if (dependents != null) {
+            for (final TaskNode dependent : dependents) {
+                if (unresolved.merge(dependent, -1, Integer::sum) == 0) {
+                    resolvable.add(dependent);
+                }
+            }
+        }
+    }
+
+    /**
+     * Calculates the cost of the longest dependency chain which starts at each of the provided tasks, counting every
+     * task class on the chain once with the highest cost of its instances. Works on the class level since completing any
+     * instance of a class releases everything waiting on that class.
+     */
+    private void computeCriticalPaths(final Collection<TaskNode> taskNodes) {
+        final Map<Class<? extends LoadingTask>, Set<Class<? extends LoadingTask>>> dependencies = new HashMap<>();
+        final Map<Class<? extends LoadingTask>, Integer> dependents = new HashMap<>();
+        final Map<Class<? extends LoadingTask>, Double> costs = new HashMap<>();
+
+        for (final TaskNode taskNode : taskNodes) {
+            dependencies.computeIfAbsent(taskNode.getTaskClass(), key -> new HashSet<>()).addAll(taskNode.dependencies);
+            dependents.putIfAbsent(taskNode.getTaskClass(), 0);
+            costs.merge(taskNode.getTaskClass(), taskNode.getCost(), Math::max);
+        }
+
+        for (final Set<Class<? extends LoadingTask>> classDependencies : dependencies.values()) {
+            for (final Class<? extends LoadingTask> dependency : classDependencies) {
+                dependents.computeIfPresent(dependency, (key, count) -> count + 1);
+            }
+        }
+
+        // Walk the class graph backwards starting from the classes nothing depends on.
+        final Map<Class<? extends LoadingTask>, Double> criticalPaths = new HashMap<>();
+        final Queue<Class<? extends LoadingTask>> resolvable = new ArrayDeque<>();
+
+        for (final Map.Entry<Class<? extends LoadingTask>, Integer> entry : dependents.entrySet()) {
+            criticalPaths.put(entry.getKey(), costs.get(entry.getKey()));
+
+            if (entry.getValue() == 0) {
+                resolvable.add(entry.getKey());
+            }
+        }
+
+        while (!resolvable.isEmpty()) {
+            final Class<? extends LoadingTask> loadingTaskClass = resolvable.poll();
+            final double criticalPath = criticalPaths.get(loadingTaskClass);
+
+            for (final Class<? extends LoadingTask> dependency : dependencies.get(loadingTaskClass)) {
+                if (dependents.containsKey(dependency)) {
+                    criticalPaths.merge(dependency, criticalPath + costs.get(dependency), Math::max);
+
+                    if (dependents.merge(dependency, -1, Integer::sum) == 0) {
+                        resolvable.add(dependency);
+                    }
+                }
+            }
+        }
+
+        for (final TaskNode taskNode : taskNodes) {
+            taskNode.criticalPath = criticalPaths.get(taskNode.getTaskClass());
+        }
+    }
+}
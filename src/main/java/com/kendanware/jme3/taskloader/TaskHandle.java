@@ -0,0 +1,23 @@
+package com.kendanware.jme3.taskloader;
+
+/**
+ * A handle to a single registered task, returned by {@link LoadingManager#registerForLoading(LoadingTask)} and
+ * {@link TaskContext#spawn(LoadingTask)}. Other tasks can depend on exactly this task instead of on any instance of its
+ * class by passing the handle to {@link LoadingManager#registerForLoading(LoadingTask, TaskHandle...)}.
+ */
+public interface TaskHandle {
+
+    /**
+     * Returns the task this handle was created for.
+     *
+     * @return the task.
+     */
+    LoadingTask getLoadingTask();
+
+    /**
+     * Returns true once the task, including any child tasks it has spawned, has been loaded.
+     *
+     * @return true if the task has been loaded, otherwise false.
+     */
+    boolean isLoaded();
+}
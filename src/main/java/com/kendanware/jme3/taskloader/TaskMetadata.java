@@ -0,0 +1,134 @@
+package com.kendanware.jme3.taskloader;
+
+import com.kendanware.jme3.taskloader.annotation.Cost;
+import com.kendanware.jme3.taskloader.annotation.DependsOn;
+import com.kendanware.jme3.taskloader.annotation.Description;
+import com.kendanware.jme3.taskloader.annotation.MemoryCost;
+import com.kendanware.jme3.taskloader.annotation.Priority;
+import com.kendanware.jme3.taskloader.annotation.Timeout;
+
+/**
+ * Holds everything the loading system needs to know about a {@link LoadingTask} class which is declared through
+ * annotations. The annotations are only looked up once per task class, after that the cached metadata is shared by every
+ * instance of the class for scheduling and progress reporting.
+ */
+final class TaskMetadata {
+
+    private static final Class<? extends LoadingTask>[] NO_DEPENDENCIES = new Class[0];
+
+    private static final ClassValue<TaskMetadata> METADATA = new ClassValue<TaskMetadata>() {
+        @Override
+        protected TaskMetadata computeValue(final Class<?> type) {
+            return new TaskMetadata(type);
+        }
+    };
+
+    private final Class<? extends LoadingTask>[] dependencies;
+    private final boolean allInstances;
+    private final String description;
+    private final int priority;
+    private final double cost;
+    private final boolean costDeclared;
+    private final long timeoutNanos;
+    private final long memoryCost;
+
+    private TaskMetadata(final Class<?> loadingTaskClass) {
+        final DependsOn dependsOn = loadingTaskClass.getAnnotation(DependsOn.class);
+        final Description description = loadingTaskClass.getAnnotation(Description.class);
+        final Priority priority = loadingTaskClass.getAnnotation(Priority.class);
+        final Cost cost = loadingTaskClass.getAnnotation(Cost.class);
+        final Timeout timeout = loadingTaskClass.getAnnotation(Timeout.class);
+        final MemoryCost memoryCost = loadingTaskClass.getAnnotation(MemoryCost.class);
+
+        this.dependencies = dependsOn != null ? dependsOn.value() : NO_DEPENDENCIES;
+        this.allInstances = dependsOn != null && dependsOn.allInstances();
+        this.description = description != null && description.value() != null ? description.value() : "";
+        this.priority = priority != null ? priority.value() : 0;
+        this.cost = cost != null ? cost.value() : 1.0;
+        this.costDeclared = cost != null;
+        this.timeoutNanos = timeout != null ? timeout.unit().toNanos(timeout.value()) : 0;
+        this.memoryCost = memoryCost != null ? Math.max(0, memoryCost.value()) : 0;
+    }
+
+    /**
+     * Returns the metadata for the class of the provided task.
+     *
+     * @param loadingTask the task to get the metadata for.
+     * @return the cached metadata for the task's class.
+     */
+    static TaskMetadata of(final LoadingTask loadingTask) {
+        return METADATA.get(loadingTask.getClass());
+    }
+
+    /**
+     * Returns the task classes declared through {@link DependsOn}. The returned array is shared and must not be modified.
+     *
+     * @return the declared dependencies, an empty array if there are none.
+     */
+    Class<? extends LoadingTask>[] getDependencies() {
+        return dependencies;
+    }
+
+    /**
+     * Returns true if the dependencies are only fulfilled once every instance of their classes has been loaded.
+     *
+     * @return the {@link DependsOn#allInstances()} flag or false if there are no declared dependencies.
+     */
+    boolean isAllInstances() {
+        return allInstances;
+    }
+
+    /**
+     * Returns the message declared through {@link Description}.
+     *
+     * @return the declared description or an empty string if there is none.
+     */
+    String getDescription() {
+        return description;
+    }
+
+    /**
+     * Returns the priority declared through {@link Priority}.
+     *
+     * @return the declared priority or 0 if there is none.
+     */
+    int getPriority() {
+        return priority;
+    }
+
+    /**
+     * Returns the cost declared through {@link Cost}.
+     *
+     * @return the declared cost or 1.0 if there is none.
+     */
+    double getCost() {
+        return cost;
+    }
+
+    /**
+     * Returns true if the cost was declared through {@link Cost}.
+     *
+     * @return true if a cost was declared, false if {@link #getCost()} is the default.
+     */
+    boolean isCostDeclared() {
+        return costDeclared;
+    }
+
+    /**
+     * Returns the timeout declared through {@link Timeout}.
+     *
+     * @return the declared timeout in nanoseconds or 0 if there is none.
+     */
+    long getTimeoutNanos() {
+        return timeoutNanos;
+    }
+
+    /**
+     * Returns the memory cost declared through {@link MemoryCost}.
+     *
+     * @return the declared memory cost in bytes or 0 if there is none.
+     */
+    long getMemoryCost() {
+        return memoryCost;
+    }
+}
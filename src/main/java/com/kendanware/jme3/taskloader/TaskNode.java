@@ -0,0 +1,92 @@
+package com.kendanware.jme3.taskloader;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * A registered task together with everything the {@link TaskGraph} needs for scheduling it. The scheduling state is
+ * only accessed while holding the graph lock, except for the cancellation flag which tasks poll through
+ * {@link TaskContext} and the timeout which is only touched by the loader thread loading the task.
+ */
+class TaskNode implements TaskHandle {
+
+    /**
+     * Orders ready tasks by priority, then by the length of the critical path behind them and finally by the order in
+     * which they were registered.
+     */
+    static final Comparator<TaskNode> READY_ORDER = (first, second) -> {
+        if (first.priority != second.priority) {
+            return Integer.compare(second.priority, first.priority);
+        }
+
+        if (first.criticalPath != second.criticalPath) {
+            return Double.compare(second.criticalPath, first.criticalPath);
+        }
+
+        return Long.compare(first.sequence, second.sequence);
+    };
+
+    private final LoadingTask loadingTask;
+    private final int priority;
+    private final long sequence;
+    private final double cost;
+    private final long memoryCost;
+    Set<Class<? extends LoadingTask>> dependencies;
+    List<TaskNode> handleDependencies = Collections.emptyList();
+    List<TaskNode> dependents;
+    int unresolvedDependencies;
+    boolean scheduled;
+    Batch batch;
+    TaskNode parent;
+    int pendingChildren;
+    boolean awaitingChildren;
+    boolean deferred;
+    TaskNode completedParent;
+    volatile boolean loaded;
+    double criticalPath;
+    long readyAt;
+    long startedAt;
+    long startedCpuTime;
+    long threadId;
+    Thread thread;
+    CompletableFuture<?> future;
+    TaskNode nextRunning;
+    boolean drained;
+    boolean timedOut;
+    volatile boolean cancelled;
+    ScheduledFuture<?> timeout;
+
+    TaskNode(final LoadingTask loadingTask, final int priority, final double cost, final long sequence) {
+        this.loadingTask = loadingTask;
+        this.priority = priority;
+        this.cost = cost;
+        this.sequence = sequence;
+        this.memoryCost = TaskMetadata.of(loadingTask).getMemoryCost();
+    }
+
+    @Override
+    public LoadingTask getLoadingTask() {
+        return loadingTask;
+    }
+
+    @Override
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    Class<? extends LoadingTask> getTaskClass() {
+        return loadingTask.getClass();
+    }
+
+    double getCost() {
+        return cost;
+    }
+
+    long getMemoryCost() {
+        return memoryCost;
+    }
+}
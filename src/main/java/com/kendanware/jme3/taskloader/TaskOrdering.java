@@ -0,0 +1,20 @@
+package com.kendanware.jme3.taskloader;
+
+/**
+ * Decides in which order the {@link LoadingManager} hands out tasks which are ready to be loaded and have the same
+ * priority. Tasks with a higher priority, declared through {@link com.kendanware.jme3.taskloader.annotation.Priority}
+ * or when registering the task, are always handed out first.
+ */
+public enum TaskOrdering {
+
+    /**
+     * Tasks are handed out in the order they were registered.
+     */
+    REGISTRATION_ORDER,
+
+    /**
+     * Tasks with the longest chain of dependent tasks waiting on them are handed out first. This gets long chains going
+     * early so there is less time at the end of a load where only a single core has anything to do.
+     */
+    CRITICAL_PATH
+}
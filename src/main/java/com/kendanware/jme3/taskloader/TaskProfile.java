@@ -0,0 +1,86 @@
+package com.kendanware.jme3.taskloader;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Timings recorded by a {@link LoadingProfile} for one task class. Averages are exponential moving averages so they
+ * follow changes in content over time instead of being dragged down by old runs.
+ */
+public class TaskProfile {
+
+    private static final double SMOOTHING = 0.3;
+
+    private long loadCount;
+    private double averageLoadNanos;
+    private double averageQueueWaitNanos;
+    private long lastThreadId;
+
+    TaskProfile() {
+    }
+
+    TaskProfile(final long loadCount, final double averageLoadNanos, final double averageQueueWaitNanos, final long lastThreadId) {
+        this.loadCount = loadCount;
+        this.averageLoadNanos = averageLoadNanos;
+        this.averageQueueWaitNanos = averageQueueWaitNanos;
+        this.lastThreadId = lastThreadId;
+    }
+
+    synchronized void record(final long loadNanos, final long queueWaitNanos, final long threadId) {
+        if (loadCount == 0) {
+            averageLoadNanos = loadNanos;
+            averageQueueWaitNanos = queueWaitNanos;
+        } else {
+            averageLoadNanos += SMOOTHING * (loadNanos - averageLoadNanos);
+            averageQueueWaitNanos += SMOOTHING * (queueWaitNanos - averageQueueWaitNanos);
+        }
+
+        loadCount++;
+        lastThreadId = threadId;
+    }
+
+    /**
+     * Returns how many times a task of this class has been loaded.
+     *
+     * @return the number of recorded loads.
+     */
+    public synchronized long getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * Returns the average time it took to load a task of this class.
+     *
+     * @param timeUnit the unit to return the time in.
+     * @return the average load time.
+     */
+    public synchronized long getAverageLoadTime(final TimeUnit timeUnit) {
+        return timeUnit.convert((long) averageLoadNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the average time a task of this class was ready to be loaded but waited for a free loader thread.
+     *
+     * @param timeUnit the unit to return the time in.
+     * @return the average queue wait time.
+     */
+    public synchronized long getAverageQueueWaitTime(final TimeUnit timeUnit) {
+        return timeUnit.convert((long) averageQueueWaitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the id of the thread which loaded a task of this class most recently.
+     *
+     * @return a thread id as returned by {@link Thread#getId()}.
+     */
+    public synchronized long getLastThreadId() {
+        return lastThreadId;
+    }
+
+    synchronized String format() {
+        return loadCount + "\t" + (long) averageLoadNanos + "\t" + (long) averageQueueWaitNanos + "\t" + lastThreadId;
+    }
+
+    synchronized double getAverageLoadMillis() {
+        return averageLoadNanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
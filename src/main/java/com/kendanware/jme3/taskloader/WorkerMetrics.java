@@ -0,0 +1,101 @@
+package com.kendanware.jme3.taskloader;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics for one thread which has run loader threads for a {@link LoadingManager}. Busy time is the time spent loading
+ * tasks and idle time is the time spent waiting for a task to become ready.
+ * <p>
+ * Only the worker thread itself updates its metrics so no locking is needed, other threads always see a recent value.
+ * </p>
+ */
+public class WorkerMetrics {
+
+    private final long threadId;
+    private final String threadName;
+    private volatile long tasksLoaded;
+    private volatile long busyNanos;
+    private volatile long idleNanos;
+
+    WorkerMetrics(final long threadId, final String threadName) {
+        this.threadId = threadId;
+        this.threadName = threadName;
+    }
+
+    void recordBusy(final long nanos) {
+        // Single writer, see class documentation.
+        tasksLoaded = tasksLoaded + 1;
+        busyNanos = busyNanos + nanos;
+    }
+
+    void recordIdle(final long nanos) {
+        idleNanos = idleNanos + nanos;
+    }
+
+    /**
+     * Returns the id of the worker thread.
+     *
+     * @return the thread id.
+     */
+    public long getThreadId() {
+        return threadId;
+    }
+
+    /**
+     * Returns the name the worker thread had when it loaded its first task.
+     *
+     * @return the thread name.
+     */
+    public String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * Returns the number of tasks this worker has loaded.
+     *
+     * @return the number of loaded tasks.
+     */
+    public long getTasksLoaded() {
+        return tasksLoaded;
+    }
+
+    /**
+     * Returns the total time this worker has spent loading tasks.
+     *
+     * @param timeUnit the unit to return the time in.
+     * @return the busy time.
+     */
+    public long getBusyTime(final TimeUnit timeUnit) {
+        return timeUnit.convert(busyNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the total time this worker has spent waiting for a task to become ready.
+     *
+     * @param timeUnit the unit to return the time in.
+     * @return the idle time.
+     */
+    public long getIdleTime(final TimeUnit timeUnit) {
+        return timeUnit.convert(idleNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Returns the share of this worker's time spent loading tasks.
+     *
+     * @return a value between 0.0 and 1.0, 0.0 if the worker hasn't done anything yet.
+     */
+    public double getUtilisation() {
+        final long busy = busyNanos;
+        final long total = busy + idleNanos;
+
+        return total > 0 ? (double) busy / total : 0.0;
+    }
+
+    long getBusyNanos() {
+        return busyNanos;
+    }
+
+    long getIdleNanos() {
+        return idleNanos;
+    }
+}
@@ -0,0 +1,29 @@
+package com.kendanware.jme3.taskloader.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation for declaring the estimated cost of a {@link com.kendanware.jme3.taskloader.LoadingTask} relative to other
+ * tasks. The unit is up to you as long as it is used consistently, the expected loading time in milliseconds works well.
+ * Tasks without this annotation have a cost of 1.
+ * <p>
+ * The cost decides how far the loading progress moves once the task completes, so a task with a cost of 2000 moves the
+ * progress as much as 2000 tasks with a cost of 1. It is also used when ordering tasks by
+ * {@link com.kendanware.jme3.taskloader.TaskOrdering#CRITICAL_PATH}.
+ * </p>
+ * <pre>
+ *     {@literal @}Cost(2000)
+ *     public class TerrainLoadingTask implements LoadingTask {
+ *         // Implementation left out.
+ *     }
+ * </pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Cost {
+
+    double value();
+}
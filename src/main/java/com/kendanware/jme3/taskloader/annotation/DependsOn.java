@@ -12,8 +12,8 @@ import java.lang.annotation.Target;
  * used for when a task should be dependent on another task.
  * <p>
  * Using the following simple example you can see that SecondLoadingTask is dependent on FirstLoadingTask so even if
- * SecondLoadingTask is picked up first by the loading system, it will be put back on the queue until FirstLoadingTask
- * has been registered as complete.
+ * SecondLoadingTask is registered first, it will not be handed to a loader thread until FirstLoadingTask has been
+ * registered as complete.
  * </p>
  * <pre>
  *     public class FirstLoadingTask implements LoadingTask {
@@ -25,6 +25,12 @@ import java.lang.annotation.Target;
  *         // Implementation left out.
  *     }
  * </pre>
+ * <p>
+ * By default a dependency is fulfilled as soon as any instance of the class has been loaded. Set {@link #allInstances()}
+ * to wait until every registered instance of the classes has been loaded, e.g. for a task which needs all models of a
+ * level. To depend on one specific task use the handle returned when registering it, see
+ * {@link com.kendanware.jme3.taskloader.LoadingManager#registerForLoading(LoadingTask, com.kendanware.jme3.taskloader.TaskHandle...)}.
+ * </p>
  *
  * @author Daniel Johansson
  * @since 2015-03-31
@@ -34,4 +40,6 @@ import java.lang.annotation.Target;
 public @interface DependsOn {
 
     Class<? extends LoadingTask>[] value() default {};
+
+    boolean allInstances() default false;
 }
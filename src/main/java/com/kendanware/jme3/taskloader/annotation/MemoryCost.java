@@ -0,0 +1,29 @@
+package com.kendanware.jme3.taskloader.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation for declaring roughly how many bytes of heap and direct memory a
+ * {@link com.kendanware.jme3.taskloader.LoadingTask} allocates while it is loading, e.g. the decoded heightmap and
+ * vertex buffers of a terrain. Tasks without this annotation have a memory cost of 0.
+ * <p>
+ * Once a memory budget has been set with {@link com.kendanware.jme3.taskloader.LoadingManager#setMemoryBudget(long)}
+ * tasks are only started while the memory costs of the running tasks fit into the budget, so a few large tasks aren't
+ * loaded at the same time and trigger full garbage collections.
+ * </p>
+ * <pre>
+ *     {@literal @}MemoryCost(512L * 1024 * 1024)
+ *     public class TerrainLoadingTask implements LoadingTask {
+ *         // Implementation left out.
+ *     }
+ * </pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface MemoryCost {
+
+    long value();
+}
@@ -0,0 +1,28 @@
+package com.kendanware.jme3.taskloader.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation for declaring the priority of a {@link com.kendanware.jme3.taskloader.LoadingTask}. When several tasks are
+ * ready to be loaded the ones with the highest priority are handed to the loader threads first. Tasks without this
+ * annotation have a priority of 0.
+ * <p>
+ * Priorities only decide the order among tasks which are ready, a task with a high priority will still wait for the
+ * tasks it {@link DependsOn}.
+ * </p>
+ * <pre>
+ *     {@literal @}Priority(10)
+ *     public class TerrainLoadingTask implements LoadingTask {
+ *         // Implementation left out.
+ *     }
+ * </pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Priority {
+
+    int value();
+}
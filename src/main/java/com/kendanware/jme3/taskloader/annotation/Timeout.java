@@ -0,0 +1,37 @@
+package com.kendanware.jme3.taskloader.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Annotation for declaring how long a {@link com.kendanware.jme3.taskloader.LoadingTask} may take to load. Once the
+ * timeout has passed the task is cancelled, its loader thread is interrupted and the timeout is reported through
+ * {@link com.jme3.app.Application#handleError(String, Throwable)}. The task is still marked as loaded once it returns so
+ * tasks depending on it aren't stuck.
+ * <p>
+ * Only the part of a task running on a loader thread is timed, or the future of an
+ * {@link com.kendanware.jme3.taskloader.AsyncLoadingTask}. Once a {@link com.kendanware.jme3.taskloader.StagedLoadingTask}
+ * has been handed over to the render thread its render stage is no longer timed, it can't be interrupted there.
+ * </p>
+ * <p>
+ * Tasks without this annotation use the timeout set with
+ * {@link com.kendanware.jme3.taskloader.LoadingManager#setTaskTimeout(long, TimeUnit)}, if any.
+ * </p>
+ * <pre>
+ *     {@literal @}Timeout(value = 10, unit = TimeUnit.SECONDS)
+ *     public class DownloadLoadingTask implements LoadingTask {
+ *         // Implementation left out.
+ *     }
+ * </pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface Timeout {
+
+    long value();
+
+    TimeUnit unit() default TimeUnit.MILLISECONDS;
+}
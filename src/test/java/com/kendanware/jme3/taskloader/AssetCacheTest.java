@@ -0,0 +1,128 @@
+package com.kendanware.jme3.taskloader;
+
+import com.jme3.asset.AssetKey;
+import com.jme3.asset.AssetManager;
+import com.jme3.asset.AssetNotFoundException;
+import com.jme3.asset.ModelKey;
+import com.jme3.scene.Spatial;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class AssetCacheTest {
+
+    @Mock
+    private AssetManager assetManager;
+
+    private AssetCache assetCache;
+
+    @Before
+    public void setUp() {
+        assetCache = new AssetCache(assetManager, 2);
+    }
+
+    @Test
+    public void load_shouldLoadAssetOnce_whenRequestedConcurrently() throws Exception {
+        final AssetKey<String> assetKey = new AssetKey<>("Text/readme.txt");
+        final CountDownLatch requested = new CountDownLatch(4);
+        final ExecutorService executorService = Executors.newFixedThreadPool(4);
+
+        when(assetManager.loadAsset(assetKey)).thenAnswer(invocation -> {
+            requested.await(100, TimeUnit.MILLISECONDS);
+            return "readme";
+        });
+
+        try {
+            final List<Future<String>> assets = new ArrayList<>();
+
+            for (int i = 0; i < 4; i++) {
+                assets.add(executorService.submit(() -> {
+                    requested.countDown();
+                    return assetCache.load(assetKey);
+                }));
+            }
+
+            for (final Future<String> asset : assets) {
+                assertThat(asset.get(5, TimeUnit.SECONDS)).isEqualTo("readme");
+            }
+        } finally {
+            executorService.shutdown();
+        }
+
+        verify(assetManager, times(1)).loadAsset(assetKey);
+        assertThat(assetCache.getLoadCount()).isEqualTo(1L);
+        assertThat(assetCache.getHitCount()).isEqualTo(3L);
+    }
+
+    @Test
+    public void load_shouldReturnCloneOfCachedModel() {
+        final Spatial model = mock(Spatial.class);
+        final Spatial clone = mock(Spatial.class);
+
+        when(assetManager.loadAsset(any(ModelKey.class))).thenReturn(model);
+        when(model.clone()).thenReturn(clone);
+
+        assertThat(assetCache.loadModel("Models/tree.j3o")).isSameAs(clone);
+        assertThat(assetCache.loadModel("Models/tree.j3o")).isSameAs(clone);
+        verify(assetManager, times(1)).loadAsset(any(ModelKey.class));
+    }
+
+    @Test
+    public void load_shouldLoadAssetAgain_whenEarlierLoadFailed() {
+        final AssetKey<String> assetKey = new AssetKey<>("Text/readme.txt");
+
+        when(assetManager.loadAsset(assetKey)).thenThrow(new AssetNotFoundException("Text/readme.txt")).thenReturn("readme");
+
+        try {
+            assetCache.load(assetKey);
+        } catch (AssetNotFoundException e) {
+            assertThat(e.getMessage()).isEqualTo("Text/readme.txt");
+        }
+
+        assertThat(assetCache.load(assetKey)).isEqualTo("readme");
+        verify(assetManager, times(2)).loadAsset(assetKey);
+    }
+
+    @Test
+    public void load_shouldEvictLeastRecentlyUsedAsset_whenCacheIsFull() {
+        final AssetKey<String> first = new AssetKey<>("Text/first.txt");
+        final AssetKey<String> second = new AssetKey<>("Text/second.txt");
+        final AssetKey<String> third = new AssetKey<>("Text/third.txt");
+
+        when(assetManager.loadAsset(first)).thenReturn("first");
+        when(assetManager.loadAsset(second)).thenReturn("second");
+        when(assetManager.loadAsset(third)).thenReturn("third");
+
+        assetCache.load(first);
+        assetCache.load(second);
+        assetCache.load(first);
+        assetCache.load(third);
+        assetCache.load(first);
+
+        assertThat(assetCache.size()).isEqualTo(2L);
+        verify(assetManager, times(1)).loadAsset(first);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructingAssetCacheShouldThrowIllegalArgumentException_whenAssetManagerIsNull() {
+        new AssetCache(null, 2);
+    }
+}
@@ -0,0 +1,60 @@
+package com.kendanware.jme3.taskloader;
+
+import com.jme3.app.Application;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+public class ChromeTraceRecorderTest {
+
+    @Test
+    public void write_shouldWriteCompleteEventPerRecordedTask() throws IOException {
+        final ChromeTraceRecorder recorder = new ChromeTraceRecorder(4);
+        final long now = System.nanoTime();
+        final Path path = Files.createTempFile("loading-trace", ".json");
+
+        recorder.taskCompleted(new TracedLoadingTask(), 12, now, now + 2000, now + 5000);
+
+        try {
+            recorder.write(path);
+
+            final String trace = new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+            assertThat(trace).contains("\"name\":\"TracedLoadingTask\"");
+            assertThat(trace).contains("\"ph\":\"X\"");
+            assertThat(trace).contains("\"tid\":12");
+            assertThat(trace).contains("\"dur\":3.0");
+            assertThat(trace).contains("\"queueWaitUs\":2.0");
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    @Test
+    public void taskCompleted_shouldDropEvents_whenCapacityHasBeenUsedUp() {
+        final ChromeTraceRecorder recorder = new ChromeTraceRecorder(1);
+
+        recorder.taskCompleted(new TracedLoadingTask(), 1, 0, 0, 0);
+        recorder.taskCompleted(new TracedLoadingTask(), 1, 0, 0, 0);
+
+        assertThat(recorder.getRecordedEvents()).isEqualTo(1);
+        assertThat(recorder.getDroppedEvents()).isEqualTo(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructingChromeTraceRecorder_shouldThrowIllegalArgumentException_whenCapacityIsNotPositive() {
+        new ChromeTraceRecorder(0);
+    }
+
+    private static class TracedLoadingTask implements LoadingTask {
+
+        @Override
+        public void load(Application application) {
+
+        }
+    }
+}
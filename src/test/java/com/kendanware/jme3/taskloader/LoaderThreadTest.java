@@ -10,6 +10,7 @@ import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
 
 import static org.mockito.Mockito.*;
@@ -53,16 +54,17 @@ public class LoaderThreadTest {
     }
 
     @Test
-    public void run_shouldCallLoadingManagerRegisterForLoading_whenTaskDependsOnAnotherTask() {
+    public void run_shouldLoadTaskWithoutRegisteringItAgain_whenTaskDependsOnAnotherTask() {
         final LoadingTaskWithDependency loadingTaskWithDependency = new LoadingTaskWithDependency();
         final LoadingTaskWithoutDependency loadingTaskWithoutDependency = new LoadingTaskWithoutDependency();
 
-        when(loadingManager.getNextTask()).thenReturn(loadingTaskWithDependency).thenReturn(loadingTaskWithoutDependency).thenReturn(null);
+        when(loadingManager.getNextTask()).thenReturn(loadingTaskWithoutDependency).thenReturn(loadingTaskWithDependency).thenReturn(null);
 
         loaderThread.run();
 
-        verify(loadingManager).registerForLoading(loadingTaskWithDependency);
-        verify(loadingManager, never()).registerForLoading(loadingTaskWithoutDependency);
+        verify(loadingManager, never()).registerForLoading(Mockito.any(LoadingTask.class));
+        verify(loadingTaskConsumer).accept(loadingTaskWithoutDependency);
+        verify(loadingTaskConsumer).accept(loadingTaskWithDependency);
         verify(loadingManager, times(3)).getNextTask();
     }
 
@@ -74,6 +76,20 @@ public class LoaderThreadTest {
         verify(application).handleError(Mockito.anyString(), Mockito.any(Throwable.class));
     }
 
+    @Test
+    public void run_shouldHandFutureToLoadingManager_whenTaskIsAsync() {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        final AsyncLoadingTask asyncLoadingTask = mock(AsyncLoadingTask.class);
+        when(asyncLoadingTask.loadAsync(application)).thenReturn(future);
+        when(loadingManager.getNextTask()).thenReturn(asyncLoadingTask).thenReturn(null);
+
+        loaderThread.run();
+
+        verify(asyncLoadingTask, never()).load(application);
+        verify(loadingManager).acceptAsync(asyncLoadingTask, future);
+        verify(loadingTaskConsumer, never()).accept(asyncLoadingTask);
+    }
+
     private static class LoadingTaskWithoutDependency implements LoadingTask {
 
         @Override
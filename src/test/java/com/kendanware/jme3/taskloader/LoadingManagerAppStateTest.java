@@ -0,0 +1,111 @@
+package com.kendanware.jme3.taskloader;
+
+import com.jme3.app.Application;
+import com.jme3.app.state.AppStateManager;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@RunWith(MockitoJUnitRunner.class)
+public class LoadingManagerAppStateTest {
+
+    @Mock
+    private LoadingManager loadingManager;
+
+    @Mock
+    private ProgressCallback progressCallback;
+
+    @Mock
+    private Application application;
+
+    @Mock
+    private AppStateManager stateManager;
+
+    @Before
+    public void before() {
+        when(loadingManager.getApplication()).thenReturn(application);
+        when(application.getStateManager()).thenReturn(stateManager);
+    }
+
+    @Test
+    public void update_shouldRunOneStagePerFrame_whenEachStageExceedsTheBudget() {
+        final AtomicInteger loadedStages = new AtomicInteger();
+        final LoadingManagerAppState appState = new LoadingManagerAppState(loadingManager, progressCallback, TimeUnit.MILLISECONDS.toNanos(1));
+
+        for (int i = 0; i < 3; i++) {
+            appState.stage(new SlowStagedLoadingTask(loadedStages, 2));
+        }
+
+        appState.update(0.016f);
+        assertThat(loadedStages.get()).isEqualTo(1);
+
+        appState.update(0.016f);
+        assertThat(loadedStages.get()).isEqualTo(2);
+
+        appState.update(0.016f);
+        assertThat(loadedStages.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void update_shouldRunOneStagePerFrame_whenBudgetIsZero() {
+        final AtomicInteger loadedStages = new AtomicInteger();
+        final LoadingManagerAppState appState = new LoadingManagerAppState(loadingManager, progressCallback, 0);
+
+        appState.stage(new SlowStagedLoadingTask(loadedStages, 0));
+        appState.stage(new SlowStagedLoadingTask(loadedStages, 0));
+
+        appState.update(0.016f);
+        assertThat(loadedStages.get()).isEqualTo(1);
+
+        appState.update(0.016f);
+        assertThat(loadedStages.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void update_shouldRunEveryStageInOneFrame_whenStagesFitIntoTheBudget() {
+        final AtomicInteger loadedStages = new AtomicInteger();
+        final LoadingManagerAppState appState = new LoadingManagerAppState(loadingManager, progressCallback, TimeUnit.MINUTES.toNanos(1));
+
+        for (int i = 0; i < 5; i++) {
+            appState.stage(new SlowStagedLoadingTask(loadedStages, 0));
+        }
+
+        appState.update(0.016f);
+        assertThat(loadedStages.get()).isEqualTo(5);
+    }
+
+    private static class SlowStagedLoadingTask implements StagedLoadingTask {
+
+        private final AtomicInteger loadedStages;
+        private final long sleepMillis;
+
+        private SlowStagedLoadingTask(final AtomicInteger loadedStages, final long sleepMillis) {
+            this.loadedStages = loadedStages;
+            this.sleepMillis = sleepMillis;
+        }
+
+        @Override
+        public void load(Application application) {
+
+        }
+
+        @Override
+        public void loadOnRenderThread(Application application) {
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            loadedStages.incrementAndGet();
+        }
+    }
+}
@@ -1,15 +1,47 @@
 package com.kendanware.jme3.taskloader;
 
 import com.jme3.app.Application;
+import com.jme3.app.state.AppState;
+import com.jme3.app.state.AppStateManager;
+import com.kendanware.jme3.taskloader.annotation.Cost;
+import com.kendanware.jme3.taskloader.annotation.DependsOn;
 import com.kendanware.jme3.taskloader.annotation.Description;
+import com.kendanware.jme3.taskloader.annotation.MemoryCost;
+import com.kendanware.jme3.taskloader.annotation.Priority;
+import com.kendanware.jme3.taskloader.annotation.Timeout;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.runners.MockitoJUnitRunner;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.fest.assertions.api.Assertions.assertThat;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyBoolean;
+import static org.mockito.Mockito.anyFloat;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 /**
  * @author Daniel Johansson
@@ -43,6 +75,13 @@ public class LoadingManagerTest {
         assertThat(loadingManager.hasBeenLoaded(LoadingTaskWithAnnotation.class)).isTrue();
     }
 
+    @Test
+    public void hasBeenLoaded_shouldReturnFalse_whenOnlySomeOfTheDependenciesHaveBeenLoaded() {
+        loadingManager.accept(new LoadingTaskWithAnnotation());
+
+        assertThat(loadingManager.hasBeenLoaded(LoadingTaskWithAnnotation.class, LoadingTaskWithoutAnnotation.class)).isFalse();
+    }
+
     @Test
     public void accept_shouldCallProgressCallbackWithCorrectMessage() {
         loadingManager.accept(new LoadingTaskWithAnnotation());
@@ -59,11 +98,917 @@ public class LoadingManagerTest {
         assertThat(loadingManager.getProgressPercentage()).isEqualTo(100.0f);
     }
 
+    @Test
+    public void start_shouldLoadDependenciesBeforeDependentTasks() throws InterruptedException {
+        final Queue<Class<?>> loadOrder = new ConcurrentLinkedQueue<>();
+        final CountDownLatch loadingCompleted = new CountDownLatch(1);
+
+        loadingManager = new LoadingManager<>(application, 4, (message, completed, progress) -> {
+            if (completed) {
+                loadingCompleted.countDown();
+            }
+        });
+
+        loadingManager.registerForLoading(new ThirdChainedLoadingTask(loadOrder));
+        loadingManager.registerForLoading(new SecondChainedLoadingTask(loadOrder));
+        loadingManager.registerForLoading(new FirstChainedLoadingTask(loadOrder));
+        loadingManager.start();
+
+        assertThat(loadingCompleted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(new ArrayList<>(loadOrder)).isEqualTo(Arrays.asList(FirstChainedLoadingTask.class, SecondChainedLoadingTask.class, ThirdChainedLoadingTask.class));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void start_shouldThrowIllegalStateException_whenDependencyHasNotBeenRegistered() {
+        loadingManager.registerForLoading(new SecondChainedLoadingTask(new ConcurrentLinkedQueue<>()));
+        loadingManager.start();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void start_shouldThrowIllegalStateException_whenDependenciesAreCircular() {
+        loadingManager.registerForLoading(new CircularLoadingTask());
+        loadingManager.start();
+    }
+
+    @Test
+    public void start_shouldLoadNextBatch_whenDependenciesWereLoadedInPreviousBatch() throws InterruptedException {
+        final Queue<Class<?>> loadOrder = new ConcurrentLinkedQueue<>();
+        final Queue<CountDownLatch> batchesCompleted = new ConcurrentLinkedQueue<>(Arrays.asList(new CountDownLatch(1), new CountDownLatch(1)));
+
+        loadingManager = new LoadingManager<>(application, 2, (message, completed, progress) -> {
+            if (completed) {
+                batchesCompleted.peek().countDown();
+            }
+        });
+
+        loadingManager.registerForLoading(new FirstChainedLoadingTask(loadOrder));
+        loadingManager.start();
+        assertThat(batchesCompleted.peek().await(5, TimeUnit.SECONDS)).isTrue();
+        batchesCompleted.poll();
+
+        loadingManager.registerForLoading(new SecondChainedLoadingTask(loadOrder));
+        loadingManager.start();
+        assertThat(batchesCompleted.peek().await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(loadingManager.getBatchCount()).isEqualTo(2);
+        assertThat(loadingManager.isLoadingComplete()).isTrue();
+        assertThat(new ArrayList<>(loadOrder)).isEqualTo(Arrays.asList(FirstChainedLoadingTask.class, SecondChainedLoadingTask.class));
+    }
+
+    @Test
+    public void start_shouldMergeTasksIntoRunningBatchAndScaleItsProgress_whenBatchIsStillLoading() {
+        loadingManager = new LoadingManager<>(application, mock(Executor.class), 1, progressCallback);
+
+        loadingManager.registerForLoading(new LoadingTaskWithoutAnnotation(), 0, 1.0);
+        loadingManager.registerForLoading(new LoadingTaskWithoutAnnotation(), 0, 1.0);
+        loadingManager.start();
+        loadingManager.accept(loadingManager.getNextTask());
+        assertThat(loadingManager.getProgress()).isEqualTo(0.5f);
+
+        loadingManager.registerForLoading(new LoadingTaskWithoutAnnotation(), 0, 1.0);
+        loadingManager.registerForLoading(new LoadingTaskWithoutAnnotation(), 0, 1.0);
+        loadingManager.start();
+        assertThat(loadingManager.getBatchCount()).isEqualTo(1);
+        assertThat(loadingManager.getProgress()).isEqualTo(0.25f);
+
+        loadingManager.accept(loadingManager.getNextTask());
+        assertThat(loadingManager.getProgress()).isEqualTo(0.5f);
+        loadingManager.accept(loadingManager.getNextTask());
+        loadingManager.accept(loadingManager.getNextTask());
+
+        assertThat(loadingManager.isLoadingComplete()).isTrue();
+        verify(progressCallback, times(1)).progress(anyString(), eq(true), anyFloat());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void start_shouldThrowIllegalStateException_whenDependencyWasLoadedBeforeReset() {
+        loadingManager.accept(new FirstChainedLoadingTask(new ConcurrentLinkedQueue<>()));
+        loadingManager.reset();
+
+        loadingManager.registerForLoading(new SecondChainedLoadingTask(new ConcurrentLinkedQueue<>()));
+        loadingManager.start();
+    }
+
+    @Test
+    public void start_shouldLoadTasksWithHigherPriorityFirst() throws InterruptedException {
+        final Queue<Class<?>> loadOrder = new ConcurrentLinkedQueue<>();
+        final CountDownLatch loadingCompleted = new CountDownLatch(1);
+
+        loadingManager = new LoadingManager<>(application, 1, (message, completed, progress) -> {
+            if (completed) {
+                loadingCompleted.countDown();
+            }
+        });
+
+        loadingManager.registerForLoading(new FirstChainedLoadingTask(loadOrder));
+        loadingManager.registerForLoading(new PrioritizedLoadingTask(loadOrder));
+        loadingManager.registerForLoading(new IndependentLoadingTask(loadOrder), 20);
+        loadingManager.start();
+
+        assertThat(loadingCompleted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(new ArrayList<>(loadOrder)).isEqualTo(Arrays.asList(IndependentLoadingTask.class, PrioritizedLoadingTask.class, FirstChainedLoadingTask.class));
+    }
+
+    @Test
+    public void start_shouldLoadTasksWithLongestDependencyChainFirst_whenOrderingByCriticalPath() throws InterruptedException {
+        final Queue<Class<?>> loadOrder = new ConcurrentLinkedQueue<>();
+        final CountDownLatch loadingCompleted = new CountDownLatch(1);
+
+        loadingManager = new LoadingManager<>(application, 1, (message, completed, progress) -> {
+            if (completed) {
+                loadingCompleted.countDown();
+            }
+        });
+
+        loadingManager.setTaskOrdering(TaskOrdering.CRITICAL_PATH);
+        loadingManager.registerForLoading(new IndependentLoadingTask(loadOrder));
+        loadingManager.registerForLoading(new ThirdChainedLoadingTask(loadOrder));
+        loadingManager.registerForLoading(new SecondChainedLoadingTask(loadOrder));
+        loadingManager.registerForLoading(new FirstChainedLoadingTask(loadOrder));
+        loadingManager.start();
+
+        assertThat(loadingCompleted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(new ArrayList<>(loadOrder).get(0)).isEqualTo(FirstChainedLoadingTask.class);
+    }
+
+    @Test
+    public void accept_shouldAdvanceProgressByCostOfTask() {
+        loadingManager = new LoadingManager<>(application, mock(Executor.class), 1, progressCallback);
+
+        loadingManager.registerForLoading(new LoadingTaskWithoutAnnotation());
+        loadingManager.registerForLoading(new CostlyLoadingTask());
+        loadingManager.start();
+
+        assertThat(loadingManager.getEstimatedTimeRemaining(TimeUnit.MILLISECONDS)).isEqualTo(-1L);
+
+        loadingManager.accept(loadingManager.getNextTask());
+        assertThat(loadingManager.getProgress()).isEqualTo(0.25f);
+        assertThat(loadingManager.getEstimatedTimeRemaining(TimeUnit.NANOSECONDS)).isGreaterThanOrEqualTo(0L);
+
+        loadingManager.accept(loadingManager.getNextTask());
+        assertThat(loadingManager.getProgress()).isEqualTo(1.0f);
+        assertThat(loadingManager.getEstimatedTimeRemaining(TimeUnit.MILLISECONDS)).isEqualTo(0L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void registerForLoading_shouldThrowIllegalArgumentException_whenCostIsNotPositive() {
+        loadingManager.registerForLoading(new LoadingTaskWithoutAnnotation(), 0, 0.0);
+    }
+
+    @Test
+    public void accept_shouldDeliverCoalescedProgressOnRenderThread_whenProgressDeliveryIsRenderThread() {
+        final AppStateManager stateManager = mock(AppStateManager.class);
+        final ArgumentCaptor<AppState> appState = ArgumentCaptor.forClass(AppState.class);
+        when(application.getStateManager()).thenReturn(stateManager);
+
+        loadingManager = new LoadingManager<>(application, mock(Executor.class), 1, progressCallback);
+        loadingManager.setProgressDelivery(ProgressDelivery.RENDER_THREAD);
+        loadingManager.registerForLoading(new LoadingTaskWithoutAnnotation());
+        loadingManager.registerForLoading(new LoadingTaskWithAnnotation());
+        loadingManager.start();
+
+        verify(stateManager).attach(appState.capture());
+
+        loadingManager.accept(loadingManager.getNextTask());
+        loadingManager.accept(loadingManager.getNextTask());
+        verify(progressCallback, never()).progress(anyString(), anyBoolean(), anyFloat());
+
+        appState.getValue().update(0.016f);
+        appState.getValue().update(0.016f);
+        verify(progressCallback, times(1)).progress("Annotated Task", true, 1.0f);
+        verify(stateManager).detach(appState.getValue());
+    }
+
+    @Test
+    public void progress_shouldAttachAppStateAgain_whenFinalProgressArrivesAfterItDetached() {
+        final AppStateManager stateManager = mock(AppStateManager.class);
+        final ArgumentCaptor<AppState> appState = ArgumentCaptor.forClass(AppState.class);
+        when(application.getStateManager()).thenReturn(stateManager);
+
+        loadingManager = new LoadingManager<>(application, mock(Executor.class), 1, progressCallback);
+        loadingManager.setProgressDelivery(ProgressDelivery.RENDER_THREAD);
+        loadingManager.registerForLoading(new LoadingTaskWithoutAnnotation());
+        loadingManager.start();
+        loadingManager.accept(loadingManager.getNextTask());
+
+        verify(stateManager).attach(appState.capture());
+        final LoadingManagerAppState loadingManagerAppState = (LoadingManagerAppState) appState.getValue();
+        loadingManagerAppState.update(0.016f);
+        loadingManagerAppState.update(0.016f);
+        verify(stateManager).detach(loadingManagerAppState);
+
+        loadingManagerAppState.progress("Late", true, 1.0f);
+        verify(stateManager, times(2)).attach(loadingManagerAppState);
+
+        loadingManagerAppState.update(0.016f);
+        verify(progressCallback).progress("Late", true, 1.0f);
+    }
+
+    @Test
+    public void accept_shouldCompleteStagedLoadingTaskAfterItsRenderThreadStage() {
+        final AppStateManager stateManager = mock(AppStateManager.class);
+        final ArgumentCaptor<AppState> appState = ArgumentCaptor.forClass(AppState.class);
+        final StagedLoadingTaskWithRenderStage stagedLoadingTask = new StagedLoadingTaskWithRenderStage();
+        when(application.getStateManager()).thenReturn(stateManager);
+
+        loadingManager = new LoadingManager<>(application, mock(Executor.class), 1, progressCallback);
+        loadingManager.registerForLoading(stagedLoadingTask);
+        loadingManager.start();
+
+        loadingManager.accept(loadingManager.getNextTask());
+        assertThat(loadingManager.hasBeenLoaded(StagedLoadingTaskWithRenderStage.class)).isFalse();
+        verify(stateManager).attach(appState.capture());
+
+        appState.getValue().update(0.016f);
+        assertThat(stagedLoadingTask.loadedOnRenderThread).isTrue();
+        assertThat(loadingManager.hasBeenLoaded(StagedLoadingTaskWithRenderStage.class)).isTrue();
+        assertThat(loadingManager.isLoadingComplete()).isTrue();
+        verify(progressCallback).progress("", true, 1.0f);
+    }
+
+    @Test
+    public void pausePreloading_shouldStopLoaderThreadsUntilResumed() {
+        final Executor executor = mock(Executor.class);
+        final ArgumentCaptor<Runnable> loaderThread = ArgumentCaptor.forClass(Runnable.class);
+
+        loadingManager = new LoadingManager<>(application, executor, 1, progressCallback);
+        loadingManager.registerForLoading(new LoadingTaskWithoutAnnotation());
+        loadingManager.registerForLoading(new LoadingTaskWithAnnotation());
+        loadingManager.preload();
+        loadingManager.pausePreloading();
+
+        verify(executor, times(1)).execute(loaderThread.capture());
+        loaderThread.getValue().run();
+
+        assertThat(loadingManager.hasBeenLoaded(LoadingTaskWithoutAnnotation.class)).isFalse();
+        assertThat(loadingManager.getProgress()).isEqualTo(0.0f);
+
+        loadingManager.resumePreloading();
+
+        verify(executor, times(2)).execute(loaderThread.capture());
+        loaderThread.getValue().run();
+
+        assertThat(loadingManager.hasBeenLoaded(LoadingTaskWithoutAnnotation.class, LoadingTaskWithAnnotation.class)).isTrue();
+        assertThat(loadingManager.isLoadingComplete()).isTrue();
+    }
+
+    @Test
+    public void preload_shouldLoadTasks_whenPreviousPreloadWasLeftPaused() {
+        final Executor executor = mock(Executor.class);
+        final ArgumentCaptor<Runnable> loaderThread = ArgumentCaptor.forClass(Runnable.class);
+
+        loadingManager = new LoadingManager<>(application, executor, 1, progressCallback);
+        loadingManager.registerForLoading(new LoadingTaskWithoutAnnotation());
+        loadingManager.preload();
+        loadingManager.pausePreloading();
+        loadingManager.cancel();
+
+        loadingManager.registerForLoading(new LoadingTaskWithAnnotation());
+        loadingManager.preload();
+
+        verify(executor, times(1)).execute(loaderThread.capture());
+        loaderThread.getValue().run();
+
+        assertThat(loadingManager.hasBeenLoaded(LoadingTaskWithAnnotation.class)).isTrue();
+        assertThat(loadingManager.isLoadingComplete()).isTrue();
+    }
+
+    @Test
+    public void preload_shouldHoldRenderThreadStageAndProgressUntilStarted() {
+        final Executor executor = mock(Executor.class);
+        final AppStateManager stateManager = mock(AppStateManager.class);
+        final ArgumentCaptor<AppState> appState = ArgumentCaptor.forClass(AppState.class);
+        final StagedLoadingTaskWithRenderStage stagedLoadingTask = new StagedLoadingTaskWithRenderStage();
+        when(application.getStateManager()).thenReturn(stateManager);
+
+        loadingManager = new LoadingManager<>(application, executor, 3, progressCallback);
+        loadingManager.registerForLoading(stagedLoadingTask);
+        loadingManager.registerForLoading(new LoadingTaskWithoutAnnotation());
+        loadingManager.preload();
+
+        verify(executor, times(1)).execute(any(LoaderThread.class));
+        assertThat(loadingManager.isPreloading()).isTrue();
+
+        loadingManager.accept(loadingManager.getNextTask());
+        loadingManager.accept(loadingManager.getNextTask());
+        assertThat(loadingManager.hasBeenLoaded(LoadingTaskWithoutAnnotation.class)).isTrue();
+        verify(stateManager, never()).attach(any(AppState.class));
+        verify(progressCallback, never()).progress(anyString(), anyBoolean(), anyFloat());
+
+        loadingManager.start();
+
+        assertThat(loadingManager.isPreloading()).isFalse();
+        verify(executor, times(3)).execute(any(LoaderThread.class));
+        verify(stateManager).attach(appState.capture());
+
+        appState.getValue().update(0.016f);
+        assertThat(stagedLoadingTask.loadedOnRenderThread).isTrue();
+        assertThat(loadingManager.isLoadingComplete()).isTrue();
+        verify(progressCallback, times(1)).progress(anyString(), eq(true), eq(1.0f));
+    }
+
+    @Test
+    public void start_shouldReportCompletion_whenPreloadedBatchCompletedBeforeBeingStarted() {
+        loadingManager = new LoadingManager<>(application, mock(Executor.class), 1, progressCallback);
+        loadingManager.registerForLoading(new LoadingTaskWithoutAnnotation());
+        loadingManager.preload();
+
+        loadingManager.accept(loadingManager.getNextTask());
+        assertThat(loadingManager.isLoadingComplete()).isTrue();
+        verify(progressCallback, never()).progress(anyString(), anyBoolean(), anyFloat());
+
+        loadingManager.start();
+
+        verify(progressCallback, times(1)).progress("", true, 1.0f);
+        assertThat(loadingManager.getBatchCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void start_shouldSubmitLoaderThreadsToProvidedExecutor() {
+        final Executor executor = mock(Executor.class);
+        loadingManager = new LoadingManager<>(application, executor, 3, progressCallback);
+
+        loadingManager.registerForLoading(new LoadingTaskWithoutAnnotation());
+        loadingManager.start();
+
+        verify(executor, times(3)).execute(any(LoaderThread.class));
+    }
+
+    @Test
+    public void getNextTask_shouldNotifyLoadingListenersAndUpdateMetrics() {
+        final LoadingListener loadingListener = mock(LoadingListener.class);
+        final LoadingTask loadingTask = new LoadingTaskWithoutAnnotation();
+        loadingManager = new LoadingManager<>(application, mock(Executor.class), 1, progressCallback);
+        loadingManager.addLoadingListener(loadingListener);
+
+        loadingManager.registerForLoading(loadingTask);
+        loadingManager.registerForLoading(new LoadingTaskWithAnnotation());
+        loadingManager.start();
+
+        final LoadingMetrics metrics = loadingManager.getMetrics();
+        assertThat(metrics.getQueueDepth()).isEqualTo(2);
+
+        assertThat(loadingManager.getNextTask()).isSameAs(loadingTask);
+        verify(loadingListener).taskStarted(eq(loadingTask), eq(Thread.currentThread().getId()), anyLong());
+        assertThat(metrics.getQueueDepth()).isEqualTo(1);
+        assertThat(metrics.getRunningTasks()).isEqualTo(1);
+
+        loadingManager.accept(loadingTask);
+        verify(loadingListener).taskCompleted(eq(loadingTask), eq(Thread.currentThread().getId()), anyLong(), anyLong(), anyLong());
+        assertThat(metrics.getTasksStarted()).isEqualTo(1L);
+        assertThat(metrics.getTasksCompleted()).isEqualTo(1L);
+        assertThat(metrics.getRunningTasks()).isEqualTo(0);
+        assertThat(metrics.getWorkers()).hasSize(1);
+        assertThat(metrics.getWorkers().iterator().next().getTasksLoaded()).isEqualTo(1L);
+    }
+
+    @Test
+    public void getMetrics_shouldDropWorkersOfStoppedLoaderThreadsButKeepTheirUtilisation() throws InterruptedException {
+        final Queue<String> loadedTasks = new ConcurrentLinkedQueue<>();
+        final CountDownLatch loadingCompleted = new CountDownLatch(1);
+
+        loadingManager = new LoadingManager<>(application, 2, (message, completed, progress) -> {
+            if (completed) {
+                loadingCompleted.countDown();
+            }
+        });
+
+        for (int i = 0; i < 20; i++) {
+            loadingManager.registerForLoading(new RecordingLoadingTask(loadedTasks, "task", 1));
+        }
+
+        loadingManager.start();
+        assertThat(loadingCompleted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        final LoadingMetrics metrics = loadingManager.getMetrics();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (!metrics.getWorkers().isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+
+        assertThat(metrics.getWorkers()).isEmpty();
+        assertThat(metrics.getUtilisation()).isGreaterThan(0.0);
+    }
+
+    @Test
+    public void accept_shouldCompleteTheNodeOfTheCallingThread_whenSameTaskInstanceCompletesOutOfOrder() throws InterruptedException {
+        final LoadingTask loadingTask = new LoadingTaskWithoutAnnotation();
+        final Queue<String> completions = new ConcurrentLinkedQueue<>();
+        final CountDownLatch firstTaken = new CountDownLatch(1);
+        final CountDownLatch secondTaken = new CountDownLatch(1);
+        final CountDownLatch firstCompleted = new CountDownLatch(1);
+        loadingManager = new LoadingManager<>(application, mock(Executor.class), 1, progressCallback);
+        loadingManager.addLoadingListener(new LoadingListener() {
+            @Override
+            public void taskCompleted(final LoadingTask completedTask, final long threadId, final long readyAt, final long startedAt, final long completedAt) {
+                completions.add(threadId + "/" + Thread.currentThread().getId());
+            }
+        });
+
+        loadingManager.registerForLoading(loadingTask);
+        loadingManager.registerForLoading(loadingTask);
+        loadingManager.start();
+
+        final Thread first = new Thread(() -> {
+            loadingManager.getNextTask();
+            firstTaken.countDown();
+            await(secondTaken);
+            loadingManager.accept(loadingTask);
+            firstCompleted.countDown();
+        });
+        final Thread second = new Thread(() -> {
+            await(firstTaken);
+            loadingManager.getNextTask();
+            secondTaken.countDown();
+            await(firstCompleted);
+            loadingManager.accept(loadingTask);
+        });
+
+        first.start();
+        second.start();
+        first.join(5000);
+        second.join(5000);
+
+        assertThat(new ArrayList<>(completions)).isEqualTo(Arrays.asList(first.getId() + "/" + first.getId(), second.getId() + "/" + second.getId()));
+        assertThat(loadingManager.isLoadingComplete()).isTrue();
+        assertThat(loadingManager.getMetrics().getRunningTasks()).isEqualTo(0);
+    }
+
+    @Test
+    public void cancel_shouldDropPendingTasksAndCancelRunningTasks() {
+        final LoadingTask loadingTask = new LoadingTaskWithoutAnnotation();
+        loadingManager = new LoadingManager<>(application, mock(Executor.class), 1, progressCallback);
+
+        loadingManager.registerForLoading(loadingTask);
+        loadingManager.registerForLoading(new LoadingTaskWithAnnotation());
+        loadingManager.start();
+
+        assertThat(loadingManager.getNextTask()).isSameAs(loadingTask);
+        loadingManager.cancel();
+
+        assertThat(loadingManager.isLoadingCancelled()).isTrue();
+        assertThat(TaskContext.current().isCancelled()).isTrue();
+        assertThat(loadingManager.getNextTask()).isNull();
+
+        loadingManager.accept(loadingTask);
+        assertThat(TaskContext.current().isCancelled()).isFalse();
+        assertThat(loadingManager.hasBeenLoaded(LoadingTaskWithoutAnnotation.class)).isFalse();
+        assertThat(loadingManager.isLoadingComplete()).isFalse();
+        verify(progressCallback, never()).progress(anyString(), anyBoolean(), anyFloat());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void start_shouldThrowIllegalStateException_whenTaskDependsOnHandleOfTaskDroppedByCancel() {
+        loadingManager = new LoadingManager<>(application, mock(Executor.class), 1, progressCallback);
+
+        final TaskHandle droppedHandle = loadingManager.registerForLoading(new LoadingTaskWithoutAnnotation());
+        loadingManager.registerForLoading(new LoadingTaskWithAnnotation());
+        loadingManager.start();
+        loadingManager.cancel();
+
+        loadingManager.registerForLoading(new LoadingTaskWithoutAnnotation(), droppedHandle);
+        loadingManager.start();
+    }
+
+    @Test
+    public void start_shouldStartNewBatch_whenPreviousBatchWasCancelled() {
+        loadingManager = new LoadingManager<>(application, mock(Executor.class), 1, progressCallback);
+        loadingManager.registerForLoading(new LoadingTaskWithoutAnnotation());
+        loadingManager.start();
+        loadingManager.cancel();
+
+        loadingManager.registerForLoading(new LoadingTaskWithAnnotation());
+        loadingManager.start();
+
+        assertThat(loadingManager.isLoadingCancelled()).isFalse();
+        assertThat(loadingManager.getBatchCount()).isEqualTo(2);
+
+        loadingManager.accept(loadingManager.getNextTask());
+        verify(progressCallback).progress("Annotated Task", true, 1.0f);
+    }
+
+    @Test
+    public void acceptAsync_shouldCompleteTaskOnceItsFutureCompletes() {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        final AsyncLoadingTaskWithFuture asyncLoadingTask = new AsyncLoadingTaskWithFuture(future);
+        loadingManager = new LoadingManager<>(application, mock(Executor.class), 1, progressCallback);
+
+        loadingManager.registerForLoading(asyncLoadingTask);
+        loadingManager.start();
+
+        assertThat(loadingManager.getNextTask()).isSameAs(asyncLoadingTask);
+        loadingManager.acceptAsync(asyncLoadingTask, future);
+        assertThat(loadingManager.hasBeenLoaded(AsyncLoadingTaskWithFuture.class)).isFalse();
+
+        future.complete(null);
+        assertThat(loadingManager.hasBeenLoaded(AsyncLoadingTaskWithFuture.class)).isTrue();
+        verify(progressCallback).progress("", true, 1.0f);
+    }
+
+    @Test
+    public void start_shouldInterruptAndReportTask_whenItOverrunsItsTimeout() throws InterruptedException {
+        final Queue<String> loadedTasks = new ConcurrentLinkedQueue<>();
+        final CountDownLatch loadingCompleted = new CountDownLatch(1);
+        final ArgumentCaptor<Throwable> error = ArgumentCaptor.forClass(Throwable.class);
+
+        loadingManager = new LoadingManager<>(application, 2, (message, completed, progress) -> {
+            if (completed) {
+                loadingCompleted.countDown();
+            }
+        });
+
+        loadingManager.registerForLoading(new OverrunningLoadingTask(loadedTasks));
+        loadingManager.registerForLoading(new AfterOverrunningLoadingTask(loadedTasks));
+        loadingManager.start();
+
+        assertThat(loadingCompleted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(new ArrayList<>(loadedTasks)).isEqualTo(Arrays.asList("interrupted", "dependent"));
+        assertThat(loadingManager.hasBeenLoaded(OverrunningLoadingTask.class)).isTrue();
+        verify(application).handleError(anyString(), error.capture());
+        assertThat(error.getValue()).isInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    public void setTaskTimeout_shouldInterruptAndReportTask_whenItOverrunsTheTimeout() throws InterruptedException {
+        final Queue<String> loadedTasks = new ConcurrentLinkedQueue<>();
+        final CountDownLatch loadingCompleted = new CountDownLatch(1);
+        final ArgumentCaptor<Throwable> error = ArgumentCaptor.forClass(Throwable.class);
+
+        loadingManager = new LoadingManager<>(application, 1, (message, completed, progress) -> {
+            if (completed) {
+                loadingCompleted.countDown();
+            }
+        });
+
+        loadingManager.setTaskTimeout(50, TimeUnit.MILLISECONDS);
+        loadingManager.registerForLoading(new RecordingLoadingTask(loadedTasks, "slow", 10000));
+        loadingManager.start();
+
+        assertThat(loadingCompleted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(new ArrayList<>(loadedTasks)).isEqualTo(Collections.singletonList("slow"));
+        verify(application).handleError(anyString(), error.capture());
+        assertThat(error.getValue()).isInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    public void cancel_shouldCancelFutureOfAsyncTask() {
+        final CompletableFuture<Void> future = new CompletableFuture<>();
+        final AsyncLoadingTaskWithFuture asyncLoadingTask = new AsyncLoadingTaskWithFuture(future);
+        loadingManager = new LoadingManager<>(application, mock(Executor.class), 1, progressCallback);
+
+        loadingManager.registerForLoading(asyncLoadingTask);
+        loadingManager.start();
+        loadingManager.acceptAsync((AsyncLoadingTask) loadingManager.getNextTask(), future);
+        loadingManager.cancel();
+
+        assertThat(future.isCancelled()).isTrue();
+        assertThat(loadingManager.getMetrics().getRunningTasks()).isEqualTo(0);
+        verify(application, never()).handleError(anyString(), any(Throwable.class));
+    }
+
+    @Test
+    public void getResult_shouldReturnResultPublishedByDependency() throws InterruptedException {
+        final Queue<Integer> receivedResults = new ConcurrentLinkedQueue<>();
+        final CountDownLatch loadingCompleted = new CountDownLatch(1);
+
+        loadingManager = new LoadingManager<>(application, 2, (message, completed, progress) -> {
+            if (completed) {
+                loadingCompleted.countDown();
+            }
+        });
+
+        loadingManager.registerForLoading(new ResultConsumingLoadingTask(receivedResults));
+        loadingManager.registerForLoading(new ResultConsumingLoadingTask(receivedResults));
+        loadingManager.registerForLoading(new ResultPublishingLoadingTask());
+        loadingManager.start();
+
+        assertThat(loadingCompleted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(new ArrayList<>(receivedResults)).isEqualTo(Arrays.asList(42, 42));
+        assertThat(loadingManager.getResult(ResultPublishingLoadingTask.ANSWER)).isEqualTo(42);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void getResult_shouldThrowIllegalStateException_whenResultHasBeenReset() {
+        loadingManager.publishResult(ResultPublishingLoadingTask.ANSWER, 42);
+        loadingManager.reset();
+
+        loadingManager.getResult(ResultPublishingLoadingTask.ANSWER);
+    }
+
+    @Test
+    public void registerForLoading_shouldLoadTaskAfterTheTaskOfTheProvidedHandle() throws InterruptedException {
+        final Queue<String> loadedTasks = new ConcurrentLinkedQueue<>();
+        final CountDownLatch loadingCompleted = new CountDownLatch(1);
+
+        loadingManager = new LoadingManager<>(application, 2, (message, completed, progress) -> {
+            if (completed) {
+                loadingCompleted.countDown();
+            }
+        });
+
+        final TaskHandle first = loadingManager.registerForLoading(new RecordingLoadingTask(loadedTasks, "first", 50));
+        loadingManager.registerForLoading(new RecordingLoadingTask(loadedTasks, "second", 0), first);
+        loadingManager.start();
+
+        assertThat(loadingCompleted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(new ArrayList<>(loadedTasks)).isEqualTo(Arrays.asList("first", "second"));
+        assertThat(first.isLoaded()).isTrue();
+    }
+
+    @Test
+    public void registerForLoading_shouldThrowIllegalStateException_whenTaskRegisteredWhileLoadingDependsOnUnregisteredTask() {
+        loadingManager = new LoadingManager<>(application, mock(Executor.class), 1, progressCallback);
+        loadingManager.registerForLoading(new LoadingTaskWithoutAnnotation());
+        loadingManager.start();
+
+        IllegalStateException exception = null;
+
+        try {
+            loadingManager.registerForLoading(new SecondChainedLoadingTask(new ConcurrentLinkedQueue<>()));
+        } catch (IllegalStateException e) {
+            exception = e;
+        }
+
+        assertThat(exception).isNotNull();
+
+        // The rejected task mustn't keep the running batch open.
+        loadingManager.accept(loadingManager.getNextTask());
+        assertThat(loadingManager.isLoadingComplete()).isTrue();
+        verify(progressCallback).progress("", true, 1.0f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void registerForLoading_shouldThrowIllegalArgumentException_whenHandleIsNotFromLoadingManager() {
+        loadingManager.registerForLoading(new LoadingTaskWithoutAnnotation(), mock(TaskHandle.class));
+    }
+
+    @Test
+    public void start_shouldLoadTaskAfterAllInstancesOfItsDependency_whenDependencyDeclaresAllInstances() throws InterruptedException {
+        final Queue<String> loadedTasks = new ConcurrentLinkedQueue<>();
+        final CountDownLatch loadingCompleted = new CountDownLatch(1);
+
+        loadingManager = new LoadingManager<>(application, 4, (message, completed, progress) -> {
+            if (completed) {
+                loadingCompleted.countDown();
+            }
+        });
+
+        loadingManager.registerForLoading(new AllInstancesLoadingTask(loadedTasks));
+        loadingManager.registerForLoading(new RecordingLoadingTask(loadedTasks, "fast", 0));
+        loadingManager.registerForLoading(new RecordingLoadingTask(loadedTasks, "slow", 50));
+        loadingManager.start();
+
+        assertThat(loadingCompleted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(new ArrayList<>(loadedTasks)).isEqualTo(Arrays.asList("fast", "slow", "all"));
+        assertThat(loadingManager.haveAllInstancesBeenLoaded(RecordingLoadingTask.class)).isTrue();
+    }
+
+    @Test
+    public void spawn_shouldCompleteParentTaskOnceAllOfItsChildrenHaveBeenLoaded() throws InterruptedException {
+        final Queue<String> loadedTasks = new ConcurrentLinkedQueue<>();
+        final CountDownLatch loadingCompleted = new CountDownLatch(1);
+
+        loadingManager = new LoadingManager<>(application, 4, (message, completed, progress) -> {
+            if (completed) {
+                loadingCompleted.countDown();
+            }
+        });
+
+        loadingManager.registerForLoading(new ParentDependentLoadingTask(loadedTasks));
+        loadingManager.registerForLoading(new SpawningLoadingTask(loadedTasks));
+        loadingManager.start();
+
+        assertThat(loadingCompleted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(loadedTasks).hasSize(5);
+        assertThat(new ArrayList<>(loadedTasks).subList(0, 4)).containsOnly("parent", "child");
+        assertThat(new ArrayList<>(loadedTasks).get(4)).isEqualTo("dependent");
+        assertThat(loadingManager.getProgress()).isEqualTo(1.0f);
+    }
+
+    @Test
+    public void start_shouldNotLoadTasksAtTheSameTime_whenTheirMemoryCostsExceedTheMemoryBudget() throws InterruptedException {
+        final AtomicInteger loadingTasks = new AtomicInteger();
+        final AtomicInteger maximumLoadingTasks = new AtomicInteger();
+        final CountDownLatch loadingCompleted = new CountDownLatch(1);
+
+        loadingManager = new LoadingManager<>(application, 3, (message, completed, progress) -> {
+            if (completed) {
+                loadingCompleted.countDown();
+            }
+        });
+
+        loadingManager.setMemoryBudget(100);
+
+        for (int i = 0; i < 3; i++) {
+            loadingManager.registerForLoading(new MemoryHungryLoadingTask(loadingTasks, maximumLoadingTasks));
+        }
+
+        loadingManager.start();
+
+        assertThat(loadingCompleted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(maximumLoadingTasks.get()).isEqualTo(1);
+        assertThat(loadingManager.getMetrics().getAdmittedMemory()).isEqualTo(0L);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setMemoryBudget_shouldThrowIllegalArgumentException_whenBudgetIsNegative() {
+        loadingManager.setMemoryBudget(-1);
+    }
+
+    @Test
+    public void setAdaptiveThreads_shouldAddLoaderThreads_whenTasksAreBlocked() throws InterruptedException {
+        final Queue<String> loadedTasks = new ConcurrentLinkedQueue<>();
+        final CountDownLatch loadingCompleted = new CountDownLatch(1);
+
+        loadingManager = new LoadingManager<>(application, 1, (message, completed, progress) -> {
+            if (completed) {
+                loadingCompleted.countDown();
+            }
+        });
+
+        // Reserving every processor but one makes loading start with a single loader thread on any machine.
+        loadingManager.setAdaptiveThreads(1, 8, Runtime.getRuntime().availableProcessors() - 1);
+        assertThat(loadingManager.getNumberOfThreads()).isEqualTo(1);
+
+        for (int i = 0; i < 200; i++) {
+            loadingManager.registerForLoading(new RecordingLoadingTask(loadedTasks, "blocked", 10));
+        }
+
+        loadingManager.start();
+
+        assertThat(loadingCompleted.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(loadingManager.getNumberOfThreads()).isGreaterThan(1).isLessThanOrEqualTo(8);
+    }
+
+    @Test
+    public void accept_shouldReportCompletionLast_whenBatchCompletesWhileAnotherThreadReportsProgress() throws InterruptedException {
+        final List<String> reports = new ArrayList<>();
+        final CountDownLatch reportingProgress = new CountDownLatch(1);
+        final CountDownLatch progressReleased = new CountDownLatch(1);
+
+        loadingManager = new LoadingManager<>(application, mock(Executor.class), 1, (message, completed, progress) -> {
+            if (!completed) {
+                reportingProgress.countDown();
+                await(progressReleased);
+            }
+
+            synchronized (reports) {
+                reports.add(completed + " " + progress);
+            }
+        });
+
+        loadingManager.registerForLoading(new LoadingTaskWithoutAnnotation(), 0, 1.0);
+        loadingManager.registerForLoading(new LoadingTaskWithoutAnnotation(), 0, 1.0);
+        loadingManager.start();
+
+        final Thread loaderThread = new Thread(() -> loadingManager.accept(loadingManager.getNextTask()));
+        loaderThread.start();
+        await(reportingProgress);
+
+        // Completing the batch now leaves reporting the completion to the thread which is still reporting its progress.
+        loadingManager.accept(loadingManager.getNextTask());
+
+        synchronized (reports) {
+            assertThat(reports).isEmpty();
+        }
+
+        progressReleased.countDown();
+        loaderThread.join(5000);
+
+        assertThat(reports).isEqualTo(Arrays.asList("false 0.5", "true 1.0"));
+    }
+
+    @Test
+    public void start_shouldReportCompletedBatchOnce_whenManyTasksCompleteConcurrently() throws InterruptedException {
+        final Queue<String> loadedTasks = new ConcurrentLinkedQueue<>();
+        final AtomicInteger completedReports = new AtomicInteger();
+        final CountDownLatch loadingCompleted = new CountDownLatch(1);
+
+        loadingManager = new LoadingManager<>(application, 4, (message, completed, progress) -> {
+            if (completed) {
+                completedReports.incrementAndGet();
+                loadingCompleted.countDown();
+            }
+        });
+
+        for (int i = 0; i < 10000; i++) {
+            loadingManager.registerForLoading(new RecordingLoadingTask(loadedTasks, "tiny", 0));
+        }
+
+        loadingManager.start();
+
+        assertThat(loadingCompleted.await(10, TimeUnit.SECONDS)).isTrue();
+
+        // Once every loader thread has stopped no other thread can report the completion a second time.
+        assertThat(awaitLoaderThreadsStopped(loadingManager.getMetrics())).isTrue();
+        assertThat(completedReports.get()).isEqualTo(1);
+        assertThat(loadedTasks).hasSize(10000);
+        assertThat(loadingManager.getProgress()).isEqualTo(1.0f);
+    }
+
+    @Test
+    public void registerManifest_shouldLoadEntriesAfterTheEntriesTheyDependOn() throws InterruptedException {
+        final Queue<String> loadedTasks = new ConcurrentLinkedQueue<>();
+        final CountDownLatch loadingCompleted = new CountDownLatch(1);
+        final LoadingManifest loadingManifest = new LoadingManifest()
+                .add("Scenes/forest.j3o", "scene", "Models/tree.j3o")
+                .add("Models/tree.j3o", "model", 2.0, "Textures/bark.png")
+                .add("Textures/bark.png", "texture");
+
+        final LoadingManager<Application> manifestLoadingManager = new LoadingManager<>(application, 4, (message, completed, progress) -> {
+            if (completed) {
+                loadingCompleted.countDown();
+            }
+        });
+
+        final Map<String, TaskHandle> handles = manifestLoadingManager.registerManifest(loadingManifest, entry -> new RecordingLoadingTask(loadedTasks, entry.getPath(), 0), true);
+        manifestLoadingManager.start();
+
+        assertThat(loadingCompleted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(new ArrayList<>(loadedTasks)).isEqualTo(Arrays.asList("Textures/bark.png", "Models/tree.j3o", "Scenes/forest.j3o"));
+        assertThat(handles.get("Scenes/forest.j3o").isLoaded()).isTrue();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void registerManifest_shouldThrowIllegalArgumentException_whenDependencyIsNotInManifest() {
+        loadingManager.registerManifest(new LoadingManifest().add("Models/tree.j3o", "model", "Textures/bark.png"), entry -> new LoadingTaskWithoutAnnotation());
+    }
+
+    @Test
+    public void registerManifest_shouldThrowIllegalStateException_whenEntriesRegisteredWhileLoadingAreCircular() {
+        final LoadingManager<Application> manifestLoadingManager = new LoadingManager<>(application, mock(Executor.class), 1, progressCallback);
+        manifestLoadingManager.registerForLoading(new LoadingTaskWithoutAnnotation());
+        manifestLoadingManager.start();
+
+        final LoadingManifest loadingManifest = new LoadingManifest()
+                .add("Models/tree.j3o", "model", "Textures/bark.png")
+                .add("Textures/bark.png", "texture", "Models/tree.j3o");
+        IllegalStateException exception = null;
+
+        try {
+            manifestLoadingManager.registerManifest(loadingManifest, entry -> new LoadingTaskWithoutAnnotation());
+        } catch (IllegalStateException e) {
+            exception = e;
+        }
+
+        assertThat(exception).isNotNull();
+
+        // The rejected entries mustn't keep the running batch open.
+        manifestLoadingManager.accept(manifestLoadingManager.getNextTask());
+        assertThat(manifestLoadingManager.getNextTask()).isNull();
+        assertThat(manifestLoadingManager.isLoadingComplete()).isTrue();
+        verify(progressCallback).progress("", true, 1.0f);
+    }
+
+    @Test
+    public void registerAllForLoading_shouldRegisterEveryTaskForTheNextBatch() {
+        loadingManager = new LoadingManager<>(application, mock(Executor.class), 1, progressCallback);
+
+        final List<TaskHandle> handles = loadingManager.registerAllForLoading(Arrays.asList(new LoadingTaskWithoutAnnotation(), new LoadingTaskWithAnnotation()));
+        loadingManager.start();
+
+        assertThat(loadingManager.getNextTask()).isSameAs(handles.get(0).getLoadingTask());
+        assertThat(loadingManager.getNextTask()).isSameAs(handles.get(1).getLoadingTask());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void setAdaptiveThreads_shouldThrowIllegalArgumentException_whenMaxThreadsIsLessThanMinThreads() {
+        loadingManager.setAdaptiveThreads(4, 2);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void constructingLoadingManagershouldThrowIllegalArgumentException_whenProgressCallbackIsNull() {
         new LoadingManager<>(application, null);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void constructingLoadingManagershouldThrowIllegalArgumentException_whenExecutorIsNull() {
+        new LoadingManager<>(application, (Executor) null, progressCallback);
+    }
+
+    private static boolean awaitLoaderThreadsStopped(final LoadingMetrics loadingMetrics) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (loadingMetrics.getRunningTasks() > 0 || !loadingMetrics.getWorkers().isEmpty()) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+
+            Thread.sleep(1);
+        }
+
+        return true;
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private static class LoadingTaskWithoutAnnotation implements LoadingTask {
 
         @Override
@@ -80,4 +1025,254 @@ public class LoadingManagerTest {
 
         }
     }
+
+    private static class FirstChainedLoadingTask implements LoadingTask {
+
+        private final Queue<Class<?>> loadOrder;
+
+        private FirstChainedLoadingTask(final Queue<Class<?>> loadOrder) {
+            this.loadOrder = loadOrder;
+        }
+
+        @Override
+        public void load(Application application) {
+            loadOrder.add(getClass());
+        }
+    }
+
+    @DependsOn(FirstChainedLoadingTask.class)
+    private static class SecondChainedLoadingTask extends FirstChainedLoadingTask {
+
+        private SecondChainedLoadingTask(final Queue<Class<?>> loadOrder) {
+            super(loadOrder);
+        }
+    }
+
+    @DependsOn(SecondChainedLoadingTask.class)
+    private static class ThirdChainedLoadingTask extends FirstChainedLoadingTask {
+
+        private ThirdChainedLoadingTask(final Queue<Class<?>> loadOrder) {
+            super(loadOrder);
+        }
+    }
+
+    private static class IndependentLoadingTask extends FirstChainedLoadingTask {
+
+        private IndependentLoadingTask(final Queue<Class<?>> loadOrder) {
+            super(loadOrder);
+        }
+    }
+
+    @Priority(10)
+    private static class PrioritizedLoadingTask extends FirstChainedLoadingTask {
+
+        private PrioritizedLoadingTask(final Queue<Class<?>> loadOrder) {
+            super(loadOrder);
+        }
+    }
+
+    @Cost(3)
+    private static class CostlyLoadingTask implements LoadingTask {
+
+        @Override
+        public void load(Application application) {
+
+        }
+    }
+
+    private static class StagedLoadingTaskWithRenderStage implements StagedLoadingTask {
+
+        private boolean loadedOnRenderThread;
+
+        @Override
+        public void load(Application application) {
+
+        }
+
+        @Override
+        public void loadOnRenderThread(Application application) {
+            loadedOnRenderThread = true;
+        }
+    }
+
+    private static class ResultPublishingLoadingTask implements LoadingTask {
+
+        private static final ResultKey<Integer> ANSWER = new ResultKey<>("answer", Integer.class);
+
+        @Override
+        public void load(Application application) {
+            TaskContext.current().publish(ANSWER, 42);
+        }
+    }
+
+    @DependsOn(ResultPublishingLoadingTask.class)
+    private static class ResultConsumingLoadingTask implements LoadingTask {
+
+        private final Queue<Integer> receivedResults;
+
+        private ResultConsumingLoadingTask(final Queue<Integer> receivedResults) {
+            this.receivedResults = receivedResults;
+        }
+
+        @Override
+        public void load(Application application) {
+            receivedResults.add(TaskContext.current().getResult(ResultPublishingLoadingTask.ANSWER));
+        }
+    }
+
+    private static class RecordingLoadingTask implements LoadingTask {
+
+        private final Queue<String> loadedTasks;
+        private final String name;
+        private final long sleepMillis;
+
+        private RecordingLoadingTask(final Queue<String> loadedTasks, final String name, final long sleepMillis) {
+            this.loadedTasks = loadedTasks;
+            this.name = name;
+            this.sleepMillis = sleepMillis;
+        }
+
+        @Override
+        public void load(Application application) {
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            loadedTasks.add(name);
+        }
+    }
+
+    @DependsOn(value = RecordingLoadingTask.class, allInstances = true)
+    private static class AllInstancesLoadingTask implements LoadingTask {
+
+        private final Queue<String> loadedTasks;
+
+        private AllInstancesLoadingTask(final Queue<String> loadedTasks) {
+            this.loadedTasks = loadedTasks;
+        }
+
+        @Override
+        public void load(Application application) {
+            loadedTasks.add("all");
+        }
+    }
+
+    private static class SpawningLoadingTask implements LoadingTask {
+
+        private final Queue<String> loadedTasks;
+
+        private SpawningLoadingTask(final Queue<String> loadedTasks) {
+            this.loadedTasks = loadedTasks;
+        }
+
+        @Override
+        public void load(Application application) {
+            for (int i = 0; i < 3; i++) {
+                TaskContext.current().spawn(new RecordingLoadingTask(loadedTasks, "child", 20));
+            }
+
+            loadedTasks.add("parent");
+        }
+    }
+
+    @DependsOn(SpawningLoadingTask.class)
+    private static class ParentDependentLoadingTask implements LoadingTask {
+
+        private final Queue<String> loadedTasks;
+
+        private ParentDependentLoadingTask(final Queue<String> loadedTasks) {
+            this.loadedTasks = loadedTasks;
+        }
+
+        @Override
+        public void load(Application application) {
+            loadedTasks.add("dependent");
+        }
+    }
+
+    @MemoryCost(60)
+    private static class MemoryHungryLoadingTask implements LoadingTask {
+
+        private final AtomicInteger loadingTasks;
+        private final AtomicInteger maximumLoadingTasks;
+
+        private MemoryHungryLoadingTask(final AtomicInteger loadingTasks, final AtomicInteger maximumLoadingTasks) {
+            this.loadingTasks = loadingTasks;
+            this.maximumLoadingTasks = maximumLoadingTasks;
+        }
+
+        @Override
+        public void load(Application application) {
+            final int loading = loadingTasks.incrementAndGet();
+            maximumLoadingTasks.accumulateAndGet(loading, Math::max);
+
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+
+            loadingTasks.decrementAndGet();
+        }
+    }
+
+    private static class AsyncLoadingTaskWithFuture implements AsyncLoadingTask {
+
+        private final CompletableFuture<Void> future;
+
+        private AsyncLoadingTaskWithFuture(final CompletableFuture<Void> future) {
+            this.future = future;
+        }
+
+        @Override
+        public CompletableFuture<?> loadAsync(Application application) {
+            return future;
+        }
+    }
+
+    @Timeout(50)
+    private static class OverrunningLoadingTask implements LoadingTask {
+
+        private final Queue<String> loadedTasks;
+
+        private OverrunningLoadingTask(final Queue<String> loadedTasks) {
+            this.loadedTasks = loadedTasks;
+        }
+
+        @Override
+        public void load(Application application) {
+            try {
+                Thread.sleep(10000);
+                loadedTasks.add("overrun");
+            } catch (InterruptedException e) {
+                loadedTasks.add("interrupted");
+            }
+        }
+    }
+
+    @DependsOn(OverrunningLoadingTask.class)
+    private static class AfterOverrunningLoadingTask implements LoadingTask {
+
+        private final Queue<String> loadedTasks;
+
+        private AfterOverrunningLoadingTask(final Queue<String> loadedTasks) {
+            this.loadedTasks = loadedTasks;
+        }
+
+        @Override
+        public void load(Application application) {
+            loadedTasks.add("dependent");
+        }
+    }
+
+    @DependsOn(CircularLoadingTask.class)
+    private static class CircularLoadingTask implements LoadingTask {
+
+        @Override
+        public void load(Application application) {
+
+        }
+    }
 }
@@ -0,0 +1,65 @@
+package com.kendanware.jme3.taskloader;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+public class LoadingManifestTest {
+
+    @Test
+    public void load_shouldReadPathTypeCostAndDependenciesOfEachLine() throws IOException {
+        final Path path = Files.createTempFile("loading-manifest", ".txt");
+
+        try {
+            Files.write(path, Arrays.asList(
+                    "# path type cost dependencies",
+                    "",
+                    "Textures/bark.png   texture 0.5",
+                    "Models/tree.j3o     model   2.0  Textures/bark.png",
+                    "Scenes/forest.j3o   scene        Models/tree.j3o Textures/bark.png"), StandardCharsets.UTF_8);
+
+            final List<LoadingManifest.Entry> entries = LoadingManifest.load(path).getEntries();
+
+            assertThat(entries).hasSize(3);
+            assertThat(entries.get(0).getPath()).isEqualTo("Textures/bark.png");
+            assertThat(entries.get(0).getType()).isEqualTo("texture");
+            assertThat(entries.get(0).getCost()).isEqualTo(0.5);
+            assertThat(entries.get(0).getDependencies()).isEmpty();
+            assertThat(entries.get(1).getDependencies()).isEqualTo(Collections.singletonList("Textures/bark.png"));
+            assertThat(entries.get(2).isCostDeclared()).isFalse();
+            assertThat(entries.get(2).getDependencies()).isEqualTo(Arrays.asList("Models/tree.j3o", "Textures/bark.png"));
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void load_shouldThrowIOException_whenLineHasNoType() throws IOException {
+        final Path path = Files.createTempFile("loading-manifest", ".txt");
+
+        try {
+            Files.write(path, Collections.singletonList("Models/tree.j3o"), StandardCharsets.UTF_8);
+            LoadingManifest.load(path);
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void add_shouldThrowIllegalArgumentException_whenPathIsAlreadyInManifest() {
+        new LoadingManifest().add("Models/tree.j3o", "model").add("Models/tree.j3o", "model");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void add_shouldThrowIllegalArgumentException_whenCostIsNotPositive() {
+        new LoadingManifest().add("Models/tree.j3o", "model", 0.0);
+    }
+}
@@ -0,0 +1,77 @@
+package com.kendanware.jme3.taskloader;
+
+import com.jme3.app.Application;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+public class LoadingProfileTest {
+
+    @Test
+    public void record_shouldAverageLoadTimesPerTaskClass() {
+        final LoadingProfile loadingProfile = new LoadingProfile();
+
+        loadingProfile.record(ProfiledLoadingTask.class, TimeUnit.MILLISECONDS.toNanos(10), TimeUnit.MILLISECONDS.toNanos(2), 7);
+        loadingProfile.record(ProfiledLoadingTask.class, TimeUnit.MILLISECONDS.toNanos(20), TimeUnit.MILLISECONDS.toNanos(2), 8);
+
+        final TaskProfile taskProfile = loadingProfile.getTaskProfile(ProfiledLoadingTask.class);
+        assertThat(taskProfile.getLoadCount()).isEqualTo(2L);
+        assertThat(taskProfile.getAverageLoadTime(TimeUnit.MILLISECONDS)).isEqualTo(13L);
+        assertThat(taskProfile.getAverageQueueWaitTime(TimeUnit.MILLISECONDS)).isEqualTo(2L);
+        assertThat(taskProfile.getLastThreadId()).isEqualTo(8L);
+    }
+
+    @Test
+    public void record_shouldIgnoreLambdaTasks() {
+        final LoadingProfile loadingProfile = new LoadingProfile();
+        final LoadingTask lambdaTask = application -> {
+        };
+
+        loadingProfile.record(lambdaTask.getClass(), 10, 10, 1);
+
+        assertThat(loadingProfile.getTaskProfile(lambdaTask.getClass())).isNull();
+    }
+
+    @Test
+    public void getEstimatedCost_shouldReturnAverageLoadTimeInMillisOrDefault() {
+        final LoadingProfile loadingProfile = new LoadingProfile();
+
+        assertThat(loadingProfile.getEstimatedCost(ProfiledLoadingTask.class, 1.0)).isEqualTo(1.0);
+
+        loadingProfile.record(ProfiledLoadingTask.class, TimeUnit.MILLISECONDS.toNanos(250), 0, 1);
+
+        assertThat(loadingProfile.getEstimatedCost(ProfiledLoadingTask.class, 1.0)).isEqualTo(250.0);
+    }
+
+    @Test
+    public void load_shouldReturnProfileWhichWasSaved() throws IOException {
+        final Path path = Files.createTempFile("loading-profile", ".tsv");
+
+        try {
+            final LoadingProfile loadingProfile = new LoadingProfile();
+            loadingProfile.record(ProfiledLoadingTask.class, TimeUnit.MILLISECONDS.toNanos(40), TimeUnit.MILLISECONDS.toNanos(5), 3);
+            loadingProfile.save(path);
+
+            final TaskProfile taskProfile = LoadingProfile.load(path).getTaskProfile(ProfiledLoadingTask.class);
+            assertThat(taskProfile.getLoadCount()).isEqualTo(1L);
+            assertThat(taskProfile.getAverageLoadTime(TimeUnit.MILLISECONDS)).isEqualTo(40L);
+            assertThat(taskProfile.getAverageQueueWaitTime(TimeUnit.MILLISECONDS)).isEqualTo(5L);
+            assertThat(taskProfile.getLastThreadId()).isEqualTo(3L);
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    private static class ProfiledLoadingTask implements LoadingTask {
+
+        @Override
+        public void load(Application application) {
+
+        }
+    }
+}
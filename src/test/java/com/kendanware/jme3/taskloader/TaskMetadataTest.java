@@ -0,0 +1,62 @@
+package com.kendanware.jme3.taskloader;
+
+import com.jme3.app.Application;
+import com.kendanware.jme3.taskloader.annotation.DependsOn;
+import com.kendanware.jme3.taskloader.annotation.Description;
+import com.kendanware.jme3.taskloader.annotation.MemoryCost;
+import com.kendanware.jme3.taskloader.annotation.Timeout;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.fest.assertions.api.Assertions.assertThat;
+
+public class TaskMetadataTest {
+
+    @Test
+    public void of_shouldReturnDeclaredDependenciesAndDescription() {
+        final TaskMetadata taskMetadata = TaskMetadata.of(new AnnotatedLoadingTask());
+
+        assertThat(taskMetadata.getDependencies()).containsOnly(LoadingTaskWithoutAnnotation.class);
+        assertThat(taskMetadata.getDescription()).isEqualTo("Annotated Task");
+        assertThat(taskMetadata.isAllInstances()).isTrue();
+        assertThat(taskMetadata.getTimeoutNanos()).isEqualTo(TimeUnit.SECONDS.toNanos(2));
+        assertThat(taskMetadata.getMemoryCost()).isEqualTo(1024L);
+    }
+
+    @Test
+    public void of_shouldReturnEmptyDefaults_whenTaskHasNoAnnotations() {
+        final TaskMetadata taskMetadata = TaskMetadata.of(new LoadingTaskWithoutAnnotation());
+
+        assertThat(taskMetadata.getDependencies()).isEmpty();
+        assertThat(taskMetadata.getDescription()).isEqualTo("");
+        assertThat(taskMetadata.isAllInstances()).isFalse();
+        assertThat(taskMetadata.getTimeoutNanos()).isEqualTo(0L);
+        assertThat(taskMetadata.getMemoryCost()).isEqualTo(0L);
+    }
+
+    @Test
+    public void of_shouldReturnSameMetadataForEveryInstanceOfAClass() {
+        assertThat(TaskMetadata.of(new AnnotatedLoadingTask())).isSameAs(TaskMetadata.of(new AnnotatedLoadingTask()));
+    }
+
+    private static class LoadingTaskWithoutAnnotation implements LoadingTask {
+
+        @Override
+        public void load(Application application) {
+
+        }
+    }
+
+    @Description("Annotated Task")
+    @DependsOn(value = LoadingTaskWithoutAnnotation.class, allInstances = true)
+    @Timeout(value = 2, unit = TimeUnit.SECONDS)
+    @MemoryCost(1024)
+    private static class AnnotatedLoadingTask implements LoadingTask {
+
+        @Override
+        public void load(Application application) {
+
+        }
+    }
+}